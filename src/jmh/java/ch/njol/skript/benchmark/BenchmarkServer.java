@@ -0,0 +1,205 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.benchmark;
+
+import static org.easymock.EasyMock.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginLoader;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.eclipse.jdt.annotation.Nullable;
+import org.objenesis.ObjenesisHelper;
+
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.Skript;
+import ch.njol.skript.classes.data.BukkitClasses;
+import ch.njol.skript.classes.data.BukkitEventValues;
+import ch.njol.skript.classes.data.DefaultComparators;
+import ch.njol.skript.classes.data.DefaultConverters;
+import ch.njol.skript.classes.data.DefaultFunctions;
+import ch.njol.skript.classes.data.JavaClasses;
+import ch.njol.skript.classes.data.SkriptClasses;
+import ch.njol.skript.config.Config;
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.Literal;
+import ch.njol.skript.lang.SkriptEvent;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerItem;
+import ch.njol.skript.localization.Language;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.registrations.Converters;
+
+/**
+ * Sets up Skript headlessly against a mocked {@link Server}, the same way {@code ClassesTest} does, so that benchmarks can parse and run scripts without a Minecraft
+ * server.
+ * <p>
+ * The plugin jar and the resources directory are taken from the system properties <tt>skript.benchmark.jar</tt> and <tt>skript.benchmark.resources</tt>, which are set by
+ * the <tt>jmh</tt> Gradle task.
+ */
+public abstract class BenchmarkServer {
+	private BenchmarkServer() {}
+
+	/**
+	 * The event used by all benchmark triggers. It has no event values, thus scripts can only use local and global variables, literals and event-independent expressions.
+	 */
+	public final static class BenchmarkEvent extends Event {
+
+		private final static HandlerList handlers = new HandlerList();
+
+		@Override
+		public HandlerList getHandlers() {
+			return handlers;
+		}
+
+		public static HandlerList getHandlerList() {
+			return handlers;
+		}
+
+	}
+
+	private final static class BenchmarkSkriptEvent extends SkriptEvent {
+
+		@Override
+		public boolean init(final Literal<?>[] args, final int matchedPattern, final ParseResult parseResult) {
+			return true;
+		}
+
+		@Override
+		public boolean check(final Event e) {
+			return true;
+		}
+
+		@Override
+		public String toString(final @Nullable Event e, final boolean debug) {
+			return "benchmark";
+		}
+
+	}
+
+	private static boolean started = false;
+
+	/**
+	 * Initialises Skript with all of its classes and syntax elements. Can safely be called multiple times.
+	 */
+	@SuppressWarnings({"resource", "deprecation"})
+	public static synchronized void start() throws Exception {
+		if (started)
+			return;
+
+		final File jar = new File(System.getProperty("skript.benchmark.jar", "build/libs/Skript.jar"));
+		final File dataDir = new File(System.getProperty("skript.benchmark.resources", "build/resources/main"));
+		if (!jar.exists())
+			throw new IllegalStateException("The Skript jar " + jar + " does not exist. Run the benchmarks with 'gradle jmh'.");
+
+		final Logger l = Logger.getLogger(BenchmarkServer.class.getCanonicalName());
+		l.setParent(SkriptLogger.LOGGER);
+		l.setLevel(Level.WARNING);
+
+		final Server s = createNiceMock(Server.class);
+		s.getLogger();
+		expectLastCall().andReturn(l).anyTimes();
+		s.isPrimaryThread();
+		expectLastCall().andReturn(true).anyTimes();
+		s.getName();
+		expectLastCall().andReturn("Benchmark").anyTimes();
+		s.getVersion();
+		expectLastCall().andReturn("2.0").anyTimes();
+		s.getBukkitVersion();
+		expectLastCall().andReturn("1.12.1-R0.1-SNAPSHOT").anyTimes();
+		replay(s);
+
+		Bukkit.setServer(s);
+
+		final Skript skript = (Skript) ObjenesisHelper.newInstance(Skript.class); // bypass the class loader check
+		final Field instance = Skript.class.getDeclaredField("instance");
+		instance.setAccessible(true);
+		instance.set(null, skript);
+
+		final PluginDescriptionFile pdf = new PluginDescriptionFile(new FileInputStream(new File(dataDir, "plugin.yml")));
+		final Method init = JavaPlugin.class.getDeclaredMethod("init", PluginLoader.class, Server.class, PluginDescriptionFile.class, File.class, File.class, ClassLoader.class);
+		init.setAccessible(true);
+		init.invoke(skript, new JavaPluginLoader(s), s, pdf, dataDir, jar, BenchmarkServer.class.getClassLoader());
+
+		Language.loadDefault(Skript.getAddonInstance());
+
+		new JavaClasses();
+		new BukkitClasses();
+		new BukkitEventValues();
+		new SkriptClasses();
+
+		new DefaultComparators();
+		new DefaultConverters();
+		new DefaultFunctions();
+
+		Skript.getAddonInstance().loadClasses("ch.njol.skript", "conditions", "effects", "events", "expressions", "entity");
+
+		final Field r = Skript.class.getDeclaredField("acceptRegistrations");
+		r.setAccessible(true);
+		r.set(null, false);
+		Converters.createMissingConverters();
+		Classes.onRegistrationsStop();
+
+		started = true;
+	}
+
+	/**
+	 * Parses the given lines as the body of a trigger for {@link BenchmarkEvent}. Lines are separated by '\n' and indented with tabs like in a script file.
+	 *
+	 * @param script The trigger's body, without the event line
+	 * @return The parsed trigger
+	 */
+	@SuppressWarnings("unchecked")
+	public static Trigger loadTrigger(final String script) throws IOException {
+		final StringBuilder b = new StringBuilder("benchmark:\n");
+		for (final String line : script.split("\n"))
+			b.append('\t').append(line).append('\n');
+		final Config c = new Config("" + b, "benchmark.sk", true, false, ":");
+		final SectionNode node = (SectionNode) c.getMainNode().get("benchmark");
+		assert node != null;
+		ScriptLoader.currentScript = c;
+		ScriptLoader.setCurrentEvent("benchmark", BenchmarkEvent.class);
+		try {
+			final List<TriggerItem> items = ScriptLoader.loadItems(node);
+			if (items.isEmpty())
+				throw new IllegalArgumentException("The benchmark script could not be parsed: " + script);
+			return new Trigger(null, "benchmark", new BenchmarkSkriptEvent(), items);
+		} finally {
+			ScriptLoader.deleteCurrentEvent();
+			ScriptLoader.currentScript = null;
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.entity.XpOrbData;
+import ch.njol.skript.registrations.Converters;
+import ch.njol.skript.util.Experience;
+import ch.njol.skript.util.Timespan;
+
+/**
+ * Measures {@link Converters#convert(Object, Class)} for values that need no conversion, for a direct converter, for a chained converter and for a failing conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertersBenchmark {
+	
+	private final Object number = Long.valueOf(42);
+	private final Object experience = new Experience(15);
+	private final Object timespan = new Timespan(1000);
+	
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkServer.start();
+		if (Converters.convert(experience, EntityData.class) == null)
+			throw new IllegalStateException("Missing converter from experience to entity data");
+	}
+	
+	@Benchmark
+	public Object convertInstance() {
+		return Converters.convert(number, Number.class);
+	}
+	
+	@Benchmark
+	public Object convertDirect() {
+		return Converters.convert(experience, XpOrbData.class);
+	}
+	
+	@Benchmark
+	public Object convertChained() {
+		return Converters.convert(experience, EntityData.class);
+	}
+	
+	@Benchmark
+	public Object convertMissing() {
+		return Converters.convert(timespan, Experience.class);
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Benchmark
+	public Object convertToAny() {
+		return Converters.convert(experience, new Class[] {Number.class, String.class, XpOrbData.class});
+	}
+	
+}
@@ -0,0 +1,81 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.benchmark.BenchmarkServer.BenchmarkEvent;
+import ch.njol.skript.lang.Statement;
+
+/**
+ * Measures how long {@link Statement#parse(String, String)} takes for typical lines of a script.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param({
+			"set {_x} to 5",
+			"add 1 to {_list::*}",
+			"set {stats::%{_name}%::kills} to {stats::%{_name}%::kills} + 1",
+			"broadcast \"Hello %{_name}%, you have %{_x}% points\"",
+			"{_x} is greater than 3",
+			"delete {_list::*}"
+	})
+	public String statement = "";
+
+	@SuppressWarnings("unchecked")
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkServer.start();
+		ScriptLoader.setCurrentEvent("benchmark", BenchmarkEvent.class);
+		if (Statement.parse(statement, "Can't understand this condition/effect: " + statement) == null)
+			throw new IllegalStateException("Cannot parse '" + statement + "'");
+	}
+
+	@TearDown
+	public void tearDown() {
+		ScriptLoader.deleteCurrentEvent();
+	}
+
+	@Benchmark
+	public Object parseStatement() {
+		return Statement.parse(statement, "Can't understand this condition/effect: " + statement);
+	}
+
+}
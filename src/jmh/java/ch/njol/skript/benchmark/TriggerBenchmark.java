@@ -0,0 +1,110 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.njol.skript.benchmark.BenchmarkServer.BenchmarkEvent;
+import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerItem;
+import ch.njol.skript.variables.VariablesBenchmark;
+
+/**
+ * Measures {@link TriggerItem#walk(TriggerItem, org.bukkit.event.Event)} for a few representative triggers. Every invocation uses a new event, thus local variables start
+ * out empty each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriggerBenchmark {
+
+	private final static Map<String, String> scripts = new HashMap<>();
+	static {
+		scripts.put("locals",
+				"set {_x} to 5\n" +
+				"set {_y} to {_x} * 2 + 1\n" +
+				"add {_y} to {_x}\n" +
+				"set {_s} to \"value: %{_x}%\"");
+		scripts.put("conditions",
+				"set {_x} to 5\n" +
+				"if {_x} is greater than 3:\n" +
+				"\tset {_y} to 1\n" +
+				"else:\n" +
+				"\tset {_y} to 2\n" +
+				"{_y} is 1\n" +
+				"set {_z} to true");
+		scripts.put("loop",
+				"loop 100 times:\n" +
+				"\tadd loop-number to {_sum}");
+		scripts.put("globals",
+				"set {benchmark::counter} to {benchmark::counter} + 1\n" +
+				"set {benchmark::players::%{benchmark::counter} mod 100%} to {benchmark::counter}");
+		scripts.put("lists",
+				"loop 50 times:\n" +
+				"\tadd loop-number to {_list::*}\n" +
+				"loop {_list::*}:\n" +
+				"\tadd loop-value to {_sum}");
+	}
+
+	@Param({"locals", "conditions", "loop", "globals", "lists"})
+	public String script = "";
+
+	@SuppressWarnings("null")
+	private Trigger trigger;
+
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkServer.start();
+		final String s = scripts.get(script);
+		if (s == null)
+			throw new IllegalArgumentException("Unknown script '" + script + "'");
+		trigger = BenchmarkServer.loadTrigger(s);
+	}
+	
+	@TearDown(Level.Iteration)
+	public void discardChanges() {
+		VariablesBenchmark.discardChanges();
+	}
+
+	@Benchmark
+	public boolean walk() {
+		return trigger.execute(new BenchmarkEvent());
+	}
+
+}
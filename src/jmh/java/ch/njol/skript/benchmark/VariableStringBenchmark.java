@@ -0,0 +1,91 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.benchmark.BenchmarkServer.BenchmarkEvent;
+import ch.njol.skript.lang.VariableString;
+import ch.njol.skript.util.StringMode;
+import ch.njol.skript.variables.Variables;
+
+/**
+ * Measures {@link VariableString#toString(org.bukkit.event.Event)} for messages and variable names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariableStringBenchmark {
+	
+	@Param({
+			"MESSAGE:Hello world",
+			"MESSAGE:<red>Hello %{_name}%, you have %{_points}% points and %{_ratio}% kdr",
+			"VARIABLE_NAME:stats::%{_name}%::kills",
+			"VARIABLE_NAME:list::%{_points}%::%{_ratio}%"
+	})
+	public String string = "";
+	
+	private final BenchmarkEvent event = new BenchmarkEvent();
+	
+	@SuppressWarnings("null")
+	private VariableString vs;
+	
+	@SuppressWarnings("unchecked")
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkServer.start();
+		final int c = string.indexOf(':');
+		final StringMode mode = StringMode.valueOf(string.substring(0, c));
+		ScriptLoader.setCurrentEvent("benchmark", BenchmarkEvent.class);
+		try {
+			final VariableString vs = VariableString.newInstance(string.substring(c + 1), mode);
+			if (vs == null)
+				throw new IllegalStateException("Cannot parse '" + string + "'");
+			this.vs = vs;
+		} finally {
+			ScriptLoader.deleteCurrentEvent();
+		}
+		Variables.setVariable("name", "Njol", event, true);
+		Variables.setVariable("points", Long.valueOf(1337), event, true);
+		Variables.setVariable("ratio", Double.valueOf(2.345), event, true);
+	}
+	
+	@Benchmark
+	public String render() {
+		return vs.toString(event);
+	}
+	
+}
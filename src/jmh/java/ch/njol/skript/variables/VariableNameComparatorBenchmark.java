@@ -0,0 +1,101 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link VariablesMap#variableNameComparator}, both on its own and as the comparator of a list variable's {@link TreeMap}. Does not require a server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariableNameComparatorBenchmark {
+	
+	@Param({"1000", "100000"})
+	public int size;
+	
+	@SuppressWarnings("null")
+	private String[] keys;
+	/**
+	 * Equal to {@link #keys}, but different instances
+	 */
+	@SuppressWarnings("null")
+	private String[] copies;
+	@SuppressWarnings("null")
+	private TreeMap<String, Object> list;
+	
+	private int i = 0;
+	
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+		keys = new String[size];
+		copies = new String[size];
+		list = new TreeMap<>(VariablesMap.variableNameComparator);
+		for (int i = 0; i < size; i++) {
+			keys[i] = random.nextBoolean() ? "" + (i + 1) : "player" + (i + 1) + "::kills";
+			copies[i] = new String(keys[i]);
+			list.put(keys[i], Boolean.TRUE);
+		}
+	}
+	
+	@Benchmark
+	public int compareDifferent() {
+		final int n = i++ % size;
+		return VariablesMap.variableNameComparator.compare(keys[n], keys[(n + 1) % size]);
+	}
+	
+	@Benchmark
+	public int compareEqual() {
+		final int n = i++ % size;
+		return VariablesMap.variableNameComparator.compare(keys[n], copies[n]);
+	}
+	
+	@Benchmark
+	public Object listLookup() {
+		return list.get(keys[i++ % size]);
+	}
+	
+	@Benchmark
+	public Object listInsert() {
+		final String k = keys[i++ % size];
+		list.remove(k);
+		return list.put(k, Boolean.TRUE);
+	}
+	
+}
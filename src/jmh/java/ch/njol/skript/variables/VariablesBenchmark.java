@@ -0,0 +1,119 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.njol.skript.benchmark.BenchmarkServer;
+import ch.njol.skript.benchmark.BenchmarkServer.BenchmarkEvent;
+
+/**
+ * Measures {@link Variables#getVariable(String, org.bukkit.Event, boolean)} and {@link Variables#setVariable(String, Object, org.bukkit.Event, boolean)} for single
+ * and list variables, both global and local.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariablesBenchmark {
+	
+	/**
+	 * Number of elements in the list variable <tt>{benchmark::list::*}</tt>
+	 */
+	@Param({"100", "10000"})
+	public int size;
+	
+	private final BenchmarkEvent event = new BenchmarkEvent();
+	
+	private int i = 0;
+	
+	@Setup
+	public void setup() throws Exception {
+		BenchmarkServer.start();
+		for (int i = 1; i <= size; i++) {
+			Variables.setVariable("benchmark::list::" + i, Long.valueOf(i), null, false);
+			Variables.setVariable("benchmark::list::" + i, Long.valueOf(i), event, true);
+		}
+		Variables.setVariable("benchmark::single", "value", null, false);
+		discardChanges();
+	}
+	
+	/**
+	 * Changed variables are queued to be saved, but no database is loaded, thus the queue has to be emptied manually.
+	 */
+	@TearDown(Level.Iteration)
+	public static void discardChanges() {
+		Variables.queue.clear();
+	}
+	
+	@Benchmark
+	public Object getGlobal() {
+		return Variables.getVariable("benchmark::single", null, false);
+	}
+	
+	@Benchmark
+	public Object getGlobalListElement() {
+		return Variables.getVariable("benchmark::list::" + (i++ % size + 1), null, false);
+	}
+	
+	@Benchmark
+	public Object getGlobalList() {
+		return Variables.getVariable("benchmark::list::*", null, false);
+	}
+	
+	@Benchmark
+	public Object getLocalListElement() {
+		return Variables.getVariable("benchmark::list::" + (i++ % size + 1), event, true);
+	}
+	
+	@Benchmark
+	public void setGlobal() {
+		Variables.setVariable("benchmark::single", Long.valueOf(i++), null, false);
+	}
+	
+	@Benchmark
+	public void setGlobalListElement() {
+		final int n = i++ % size + 1;
+		Variables.setVariable("benchmark::list::" + n, Long.valueOf(n), null, false);
+	}
+	
+	@Benchmark
+	public void setLocalListElement() {
+		final int n = i++ % size + 1;
+		Variables.setVariable("benchmark::list::" + n, Long.valueOf(n), event, true);
+	}
+	
+}
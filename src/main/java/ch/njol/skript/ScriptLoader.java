@@ -62,6 +62,7 @@ import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.SkriptEventInfo;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.Statement;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.lang.TriggerSection;
@@ -130,12 +131,14 @@ final public class ScriptLoader {
 		currentEventName = name;
 		currentEvents = events;
 		hasDelayBefore = Kleenean.FALSE;
+		onlyThreadSafeElements = true;
 	}
 	
 	public static void deleteCurrentEvent() {
 		currentEventName = null;
 		currentEvents = null;
 		hasDelayBefore = Kleenean.FALSE;
+		onlyThreadSafeElements = true;
 	}
 	
 	public static List<TriggerSection> currentSections = new ArrayList<>();
@@ -154,6 +157,31 @@ final public class ScriptLoader {
 	
 	public static Kleenean hasDelayBefore = Kleenean.FALSE;
 	
+	/**
+	 * Whether all syntax elements parsed since the last call to {@link #setCurrentEvent(String, Class...)} are {@link ThreadSafe}. Set to false by the parser, and by
+	 * elements that are only thread-safe depending on how they are used.
+	 */
+	public static boolean onlyThreadSafeElements = true;
+	
+	/**
+	 * Types whose values can be turned into text outside of the main thread, see {@link #checkThreadSafeValues(Expression)}
+	 */
+	private final static Class<?>[] threadSafeValueTypes = {String.class, Number.class, Boolean.class};
+	
+	/**
+	 * Clears {@link #onlyThreadSafeElements} if the given expression may return values that must not be used outside of the main thread. Entities or blocks
+	 * for example look up the world when they are turned into text, and variables can hold values of any type. To be called by thread-safe elements that turn
+	 * the values of other expressions into text.
+	 */
+	public static void checkThreadSafeValues(final Expression<?> expr) {
+		final Class<?> c = expr.getSource().getReturnType();
+		for (final Class<?> t : threadSafeValueTypes) {
+			if (t.isAssignableFrom(c))
+				return;
+		}
+		onlyThreadSafeElements = false;
+	}
+	
 	public static class ScriptInfo {
 		public int files, triggers, commands, functions;
 		
@@ -365,17 +393,19 @@ final public class ScriptLoader {
 	 */
 	private static class ParsedEventData {
 		
-		public ParsedEventData(NonNullPair<SkriptEventInfo<?>, SkriptEvent> info, String event, SectionNode node, List<TriggerItem> items) {
+		public ParsedEventData(NonNullPair<SkriptEventInfo<?>, SkriptEvent> info, String event, SectionNode node, List<TriggerItem> items, boolean threadSafe) {
 			this.info = info;
 			this.event = event;
 			this.node = node;
 			this.items = items;
+			this.threadSafe = threadSafe;
 		}
 		
 		public final NonNullPair<SkriptEventInfo<?>, SkriptEvent> info;
 		public final String event;
 		public final SectionNode node;
 		public final List<TriggerItem> items;
+		public final boolean threadSafe;
 	}
 	
 	/**
@@ -404,6 +434,8 @@ final public class ScriptLoader {
 			if (SkriptConfig.keepConfigsLoaded.value())
 				SkriptConfig.configs.add(config);
 			
+			Commands.clearEffectCommandCache(); // effect commands may use this script's functions
+			
 			currentAliases.clear();
 			currentOptions.clear();
 			currentScript = config;
@@ -564,7 +596,8 @@ final public class ScriptLoader {
 					
 					try {
 						setCurrentEvent("" + parsedEvent.getFirst().getName().toLowerCase(Locale.ENGLISH), parsedEvent.getFirst().events);
-						events.add(new ParsedEventData(parsedEvent, event, node, loadItems(node)));
+						final List<TriggerItem> items = loadItems(node);
+						events.add(new ParsedEventData(parsedEvent, event, node, items, onlyThreadSafeElements));
 					} finally {
 						deleteCurrentEvent();
 					}
@@ -622,6 +655,7 @@ final public class ScriptLoader {
 						trigger = new Trigger(config.getFile(), event.event, event.info.getSecond(), event.items);
 						trigger.setLineNumber(event.node.getLine()); // Set line number for debugging
 						trigger.setDebugLabel(config.getFileName() + ": line " + event.node.getLine());
+						trigger.setThreadSafe(event.threadSafe);
 					} finally {
 						deleteCurrentEvent();
 					}
@@ -794,6 +828,7 @@ final public class ScriptLoader {
 	private final static ScriptInfo unloadScript_(final File script) {
 		if (loadedFiles.contains(script)) {
 			final ScriptInfo info = SkriptEventHandler.removeTriggers(script); // Remove triggers
+			Commands.clearEffectCommandCache();
 			synchronized (loadedScripts) { // Update script info
 				loadedScripts.subtract(info);
 			}
@@ -966,7 +1001,9 @@ final public class ScriptLoader {
 		
 		setCurrentEvent("unit test", parsedEvent.getFirst().events);
 		try {
-			return new Trigger(null, event, parsedEvent.getSecond(), loadItems(node));
+			final Trigger t = new Trigger(null, event, parsedEvent.getSecond(), loadItems(node));
+			t.setThreadSafe(onlyThreadSafeElements);
+			return t;
 		} finally {
 			deleteCurrentEvent();
 		}
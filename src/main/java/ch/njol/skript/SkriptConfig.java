@@ -101,6 +101,14 @@ public abstract class SkriptConfig {
 	public final static Option<Boolean> usePlayerUUIDsInVariableNames = new Option<Boolean>("use player UUIDs in variable names", false); // TODO change to true later (as well as in the default config)
 	public final static Option<Boolean> enablePlayerVariableFix = new Option<Boolean>("player variable fix", true);
 	
+	/**
+	 * Lists whose elements are kept serialised in a file instead of in memory while they are not read
+	 */
+	public final static Option<String> coldVariables = new Option<String>("cold variables", "none")
+			.optional(true);
+	public final static Option<Timespan> coldVariablesIdleTime = new Option<Timespan>("cold variables idle time", new Timespan(10 * 60 * 1000))
+			.optional(true);
+	
 	@SuppressWarnings("null")
 	private final static DateFormat shortDateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
 	private final static Option<DateFormat> dateFormat = new Option<DateFormat>("date format", shortDateFormat, new Converter<String, DateFormat>() {
@@ -155,6 +163,25 @@ public abstract class SkriptConfig {
 	
 	public final static Option<Integer> maxTargetBlockDistance = new Option<Integer>("maximum target block distance", 100);
 	
+	/**
+	 * Milliseconds per tick that may be spent on changing blocks 'over time'
+	 */
+	public final static Option<Integer> blockChangeTimePerTick = new Option<Integer>("block change time per tick", 5)
+			.optional(true);
+	
+	/**
+	 * Maximum number of async effects that run at the same time
+	 */
+	public final static Option<Integer> asyncEffectThreads = new Option<Integer>("async effect threads", 4)
+			.optional(true);
+	public final static Option<Boolean> asyncEffectVirtualThreads = new Option<Boolean>("async effect virtual threads", false)
+			.optional(true);
+	/**
+	 * Milliseconds per tick that may be spent on continuing triggers after async effects
+	 */
+	public final static Option<Integer> asyncEffectSyncTimePerTick = new Option<Integer>("async effect sync time per tick", 10)
+			.optional(true);
+	
 	public final static Option<Boolean> caseSensitive = new Option<Boolean>("case sensitive", false);
 	public final static Option<Boolean> allowFunctionsBeforeDefs = new Option<Boolean>("allow function calls before definations", false)
 			.optional(true);
@@ -36,6 +36,7 @@ import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.ScriptLoader;
 import ch.njol.skript.Skript;
+import ch.njol.skript.command.Commands;
 import ch.njol.skript.config.Config;
 import ch.njol.skript.config.EntryNode;
 import ch.njol.skript.config.Node;
@@ -48,6 +49,7 @@ import ch.njol.skript.localization.Noun;
 import ch.njol.skript.localization.RegexMessage;
 import ch.njol.skript.log.BlockingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.registrations.ParseCache;
 import ch.njol.skript.util.EnchantmentType;
 import ch.njol.skript.util.PotionEffectUtils;
 import ch.njol.skript.util.Utils;
@@ -744,6 +746,8 @@ public abstract class Aliases {
 		aliases_localised.clear();
 		materialNames_english.clear();
 		materialNames_localised.clear();
+		ParseCache.clear();
+		Commands.clearEffectCommandCache();
 	}
 	
 	public static void load() {
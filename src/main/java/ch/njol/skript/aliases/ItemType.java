@@ -110,6 +110,94 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 */
 	private boolean ignoreMeta = false;
 	
+	/**
+	 * Lookup table for {@link #isOfType(int, short)}, built when first needed and discarded by {@link #modified()}.
+	 */
+	@Nullable
+	private transient TypeIndex index = null;
+	
+	/**
+	 * Aliases with at most this many item datas are checked by simply iterating over them.
+	 */
+	private final static int MIN_INDEXED_TYPES = 8;
+	
+	/**
+	 * Maps item ids to the data values of this type's {@link ItemData}s that match them. Data values 0-31 (i.e. all block data and most item data) are stored as a
+	 * bitmask per id, thus checking a block or item against even the largest aliases takes constant time.
+	 */
+	private final static class TypeIndex {
+		
+		/**
+		 * Bit n of dataMasks[id] is set if the data value n of the given id matches.
+		 */
+		private final int[] dataMasks;
+		
+		/**
+		 * All ItemDatas of an id, used for data values that don't fit into the bitmask, e.g. damaged tools.
+		 */
+		private final ItemData[][] datas;
+		
+		/**
+		 * ItemDatas without an id which thus have to be checked for every id.
+		 */
+		private final ItemData[] wildcards;
+		
+		TypeIndex(final List<ItemData> types) {
+			int maxId = -1;
+			int numWildcards = 0;
+			for (final ItemData d : types) {
+				if (d.typeid == -1)
+					numWildcards++;
+				else if (d.typeid > maxId)
+					maxId = d.typeid;
+			}
+			dataMasks = new int[maxId + 1];
+			datas = new ItemData[maxId + 1][];
+			wildcards = new ItemData[numWildcards];
+			int w = 0;
+			for (final ItemData d : types) {
+				if (d.typeid == -1) {
+					wildcards[w++] = d;
+					continue;
+				}
+				final int min = d.dataMin == -1 ? 0 : Math.max(d.dataMin, 0), max = d.dataMax == -1 ? 31 : Math.min(d.dataMax, 31);
+				for (int data = min; data <= max; data++)
+					dataMasks[d.typeid] |= 1 << data;
+				final ItemData[] ds = datas[d.typeid];
+				if (ds == null) {
+					datas[d.typeid] = new ItemData[] {d};
+				} else {
+					final ItemData[] n = Arrays.copyOf(ds, ds.length + 1);
+					n[ds.length] = d;
+					datas[d.typeid] = n;
+				}
+			}
+		}
+		
+		boolean isOfType(final int id, final short data) {
+			if (id >= 0 && id < dataMasks.length) {
+				if (data >= 0 && data < 32) {
+					if ((dataMasks[id] & 1 << data) != 0)
+						return true;
+				} else {
+					final ItemData[] ds = datas[id];
+					if (ds != null) {
+						for (final ItemData d : ds) {
+							if (d.isOfType(id, data))
+								return true;
+						}
+					}
+				}
+			}
+			for (final ItemData d : wildcards) {
+				if (d.isOfType(id, data))
+					return true;
+			}
+			return false;
+		}
+		
+	}
+	
 	void setItem(final @Nullable ItemType item) {
 		if (equals(item)) { // can happen if someone defines a 'x' and 'x item/block' alias that have the same value, e.g. 'dirt' and 'dirt block'
 			this.item = null;
@@ -194,6 +282,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 */
 	public void modified() {
 		item = block = null;
+		index = null;
 	}
 	
 	/**
@@ -308,6 +397,12 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 	
 	public boolean isOfType(final int id, final short data) {
+		if (types.size() > MIN_INDEXED_TYPES) {
+			TypeIndex index = this.index;
+			if (index == null)
+				this.index = index = new TypeIndex(types);
+			return index.isOfType(id, data);
+		}
 		for (final ItemData type : types) {
 			if (type.isOfType(id, data))
 				return true;
@@ -1170,6 +1265,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		if (meta != null && !(meta instanceof ItemMeta))
 			throw new StreamCorruptedException();
 		fields.setFields(this);
+		index = null;
 	}
 	
 	/**
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -68,6 +69,7 @@ import ch.njol.skript.lang.ParseContext;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.localization.ArgsMessage;
 import ch.njol.skript.localization.Language;
+import ch.njol.skript.localization.LanguageChangeListener;
 import ch.njol.skript.localization.Message;
 import ch.njol.skript.log.BukkitLoggerFilter;
 import ch.njol.skript.log.RetainingLogHandler;
@@ -94,6 +96,86 @@ public abstract class Commands {
 	
 	private final static Map<String, ScriptCommand> commands = new HashMap<>();
 	
+	/**
+	 * An immutable hash table of all command labels and aliases, used to find commands without creating any objects. This matters as every command typed on the server
+	 * passes through {@link #handleCommand(CommandSender, String)}, most of which are not Skript commands.
+	 */
+	private final static class CommandTable {
+		
+		final static CommandTable EMPTY = new CommandTable(new HashMap<String, ScriptCommand>());
+		
+		private final String[] labels;
+		private final ScriptCommand[] commands;
+		private final int mask;
+		
+		CommandTable(final Map<String, ScriptCommand> commands) {
+			int size = 4;
+			while (size < commands.size() * 2)
+				size <<= 1;
+			labels = new String[size];
+			this.commands = new ScriptCommand[size];
+			mask = size - 1;
+			for (final Map.Entry<String, ScriptCommand> e : commands.entrySet()) {
+				final String label = e.getKey();
+				int i = hash(label, 0, label.length()) & mask;
+				while (labels[i] != null)
+					i = (i + 1) & mask;
+				labels[i] = label;
+				this.commands[i] = e.getValue();
+			}
+		}
+		
+		/**
+		 * Hashes a part of a string as if it was lower case.
+		 */
+		private static int hash(final String s, final int start, final int end) {
+			int h = 0;
+			for (int i = start; i < end; i++)
+				h = 31 * h + Character.toLowerCase(s.charAt(i));
+			return h ^ (h >>> 16);
+		}
+		
+		/**
+		 * @return The index of the label equal to the given part of the string ignoring case, or -1 if no such label exists
+		 */
+		int indexOf(final String s, final int start, final int end) {
+			final int length = end - start;
+			int i = hash(s, start, end) & mask;
+			String label;
+			outer: while ((label = labels[i]) != null) {
+				if (label.length() == length) {
+					for (int j = 0; j < length; j++) {
+						if (Character.toLowerCase(s.charAt(start + j)) != label.charAt(j)) {
+							i = (i + 1) & mask;
+							continue outer;
+						}
+					}
+					return i;
+				}
+				i = (i + 1) & mask;
+			}
+			return -1;
+		}
+		
+		String getLabel(final int index) {
+			return labels[index];
+		}
+		
+		ScriptCommand getCommand(final int index) {
+			return commands[index];
+		}
+		
+	}
+	
+	/**
+	 * Rebuilt from {@link #commands} whenever a command is (un)registered.
+	 */
+	private static volatile CommandTable commandTable = CommandTable.EMPTY;
+	
+	private static void updateCommandTable() {
+		commandTable = commands.isEmpty() ? CommandTable.EMPTY : new CommandTable(commands);
+	}
+	
 	@Nullable
 	private static SimpleCommandMap commandMap = null;
 	@Nullable
@@ -249,27 +331,73 @@ public abstract class Commands {
 	 * @return whether to cancel the event
 	 */
 	final static boolean handleCommand(final CommandSender sender, final String command) {
-		final String[] cmd = command.split("\\s+", 2);
-		cmd[0] = cmd[0].toLowerCase();
-		if (cmd[0].endsWith("?")) {
-			final ScriptCommand c = commands.get(cmd[0].substring(0, cmd[0].length() - 1));
-			if (c != null) {
-				c.sendHelp(sender);
+		final CommandTable table = commandTable;
+		if (table == CommandTable.EMPTY)
+			return false;
+		int labelEnd = 0;
+		while (labelEnd < command.length() && !isWhitespace(command.charAt(labelEnd)))
+			labelEnd++;
+		if (labelEnd == 0)
+			return false;
+		if (command.charAt(labelEnd - 1) == '?') {
+			final int i = table.indexOf(command, 0, labelEnd - 1);
+			if (i != -1) {
+				table.getCommand(i).sendHelp(sender);
 				return true;
 			}
 		}
-		final ScriptCommand c = commands.get(cmd[0]);
-		if (c != null) {
-//			if (cmd.length == 2 && cmd[1].equals("?")) {
-//				c.sendHelp(sender);
-//				return true;
-//			}
-			if (SkriptConfig.logPlayerCommands.value() && sender instanceof Player)
-				SkriptLogger.LOGGER.info(sender.getName() + " [" + ((Player) sender).getUniqueId() + "]: /" + command);
-			c.execute(sender, "" + cmd[0], cmd.length == 1 ? "" : "" + cmd[1]);
-			return true;
+		final int i = table.indexOf(command, 0, labelEnd);
+		if (i == -1)
+			return false;
+		int argsStart = labelEnd;
+		while (argsStart < command.length() && isWhitespace(command.charAt(argsStart)))
+			argsStart++;
+		if (SkriptConfig.logPlayerCommands.value() && sender instanceof Player)
+			SkriptLogger.LOGGER.info(sender.getName() + " [" + ((Player) sender).getUniqueId() + "]: /" + command);
+		table.getCommand(i).execute(sender, table.getLabel(i), "" + command.substring(argsStart));
+		return true;
+	}
+	
+	/**
+	 * @return Whether the given character is matched by the regex <tt>\s</tt>
+	 */
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+	
+	/**
+	 * Maximum number of effect commands remembered by {@link #effectCommandCache}.
+	 */
+	private final static int EFFECT_COMMAND_CACHE_SIZE = 100;
+	
+	/**
+	 * Successfully parsed effect commands, as the same few effect commands are often used over and over again, e.g. by automated tools. Must be cleared whenever
+	 * something changes that parsing depends on, see {@link #clearEffectCommandCache()}.
+	 */
+	@SuppressWarnings("serial")
+	private final static Map<String, Effect> effectCommandCache = new LinkedHashMap<String, Effect>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(final @Nullable Map.Entry<String, Effect> eldest) {
+			return size() > EFFECT_COMMAND_CACHE_SIZE;
+		}
+	};
+	
+	static {
+		Language.addListener(new LanguageChangeListener() {
+			@Override
+			public void onLanguageChange() {
+				clearEffectCommandCache();
+			}
+		});
+	}
+	
+	/**
+	 * Forgets all parsed effect commands. Called when scripts are (un)loaded, as effect commands can use functions, and when the aliases or the language change.
+	 */
+	public static void clearEffectCommandCache() {
+		synchronized (effectCommandCache) {
+			effectCommandCache.clear();
 		}
-		return false;
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -281,9 +409,20 @@ public abstract class Commands {
 			command = "" + command.substring(SkriptConfig.effectCommandToken.value().length()).trim();
 			final RetainingLogHandler log = SkriptLogger.startRetainingLog();
 			try {
-				ScriptLoader.setCurrentEvent("effect command", EffectCommandEvent.class);
-				final Effect e = Effect.parse(command, null);
-				ScriptLoader.deleteCurrentEvent();
+				Effect e;
+				synchronized (effectCommandCache) {
+					e = effectCommandCache.get(command);
+				}
+				if (e == null) {
+					ScriptLoader.setCurrentEvent("effect command", EffectCommandEvent.class);
+					e = Effect.parse(command, null);
+					ScriptLoader.deleteCurrentEvent();
+					if (e != null) {
+						synchronized (effectCommandCache) {
+							effectCommandCache.put(command, e);
+						}
+					}
+				}
 				
 				if (e != null) {
 					log.clear(); // ignore warnings and stuff
@@ -504,6 +643,7 @@ public abstract class Commands {
 		for (final String alias : command.getActiveAliases()) {
 			commands.put(alias.toLowerCase(), command);
 		}
+		updateCommandTable();
 		command.registerHelp();
 	}
 	
@@ -522,6 +662,8 @@ public abstract class Commands {
 				commandsIter.remove();
 			}
 		}
+		if (numCommands > 0)
+			updateCommandTable();
 		return numCommands;
 	}
 	
@@ -548,6 +690,7 @@ public abstract class Commands {
 			c.unregisterHelp();
 		}
 		commands.clear();
+		updateCommandTable();
 	}
 	
 	/**
@@ -39,6 +39,7 @@ import ch.njol.skript.lang.ExpressionList;
 import ch.njol.skript.lang.ParseContext;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.skript.log.ErrorQuality;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
@@ -62,6 +63,7 @@ import ch.njol.util.Kleenean;
 		"time in the player's world is greater than 8:00",
 		"the creature is not an enderman or an ender dragon"})
 @Since("1.0")
+@ThreadSafe
 public class CondCompare extends Condition {
 	
 	private final static Patterns<Relation> patterns = new Patterns<>(new Object[][] {
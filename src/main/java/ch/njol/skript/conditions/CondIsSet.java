@@ -19,6 +19,8 @@
  */
 package ch.njol.skript.conditions;
 
+import java.util.Iterator;
+
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -72,6 +74,10 @@ public class CondIsSet extends Condition {
 			return expr.getAnd();
 		}
 		assert expr.getAnd();
+		if (expr.hasLazyIterator()) {
+			final Iterator<?> iter = expr.iterator(e);
+			return isNegated() ^ (iter != null && iter.hasNext());
+		}
 		final Object[] all = expr.getAll(e);
 		return isNegated() ^ (all.length != 0);
 	}
@@ -38,6 +38,7 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.skript.log.ErrorQuality;
 import ch.njol.skript.util.Utils;
 import ch.njol.util.Kleenean;
@@ -52,6 +53,7 @@ import ch.njol.util.Kleenean;
 		"	victim has the permission \"skript.god\"",
 		"	cancel the event"})
 @Since("1.0")
+@ThreadSafe
 public class EffCancelEvent extends Effect {
 	static {
 		Skript.registerEffect(EffCancelEvent.class, "cancel [the] event", "uncancel [the] event");
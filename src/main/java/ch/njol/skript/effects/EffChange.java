@@ -25,6 +25,7 @@ import java.util.logging.Level;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
+import ch.njol.skript.ScriptLoader;
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.classes.Changer;
@@ -36,8 +37,10 @@ import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.skript.lang.Variable;
 import ch.njol.skript.log.CountingLogHandler;
 import ch.njol.skript.log.ErrorQuality;
@@ -75,6 +78,7 @@ import ch.njol.util.Kleenean;
 		"reset walk speed of player",
 		"reset chunk at the targeted block"})
 @Since("1.0 (set, add, remove, delete), 2.0 (remove all)")
+@ThreadSafe
 public class EffChange extends Effect {
 	private static Patterns<ChangeMode> patterns = new Patterns<>(new Object[][] {
 			{"(add|give) %objects% to %~objects%", ChangeMode.ADD},
@@ -259,6 +263,16 @@ public class EffChange extends Effect {
 					Skript.warning(ci.getName().withIndefiniteArticle() + " cannot be saved, i.e. the contents of the variable " + changed + " will be lost when the server stops.");
 			}
 		}
+		if (changed instanceof Variable) {
+			// global variables are shared between threads: only setting a single variable to a constant is done in one step, everything else like
+			// adding to a list or 'set {x} to {x} + 1' reads the variable first and would lose concurrent changes
+			final Variable<?> v = (Variable<?>) changed;
+			if (!v.isLocal() && (mode != ChangeMode.SET || v.isList() || !(changer instanceof Literal)))
+				ScriptLoader.onlyThreadSafeElements = false;
+		} else if (!changed.getClass().isAnnotationPresent(ThreadSafe.class)) {
+			// expressions that are not parsed as syntax elements, e.g. event values, are changed with the changer of their type which might not be thread-safe
+			ScriptLoader.onlyThreadSafeElements = false;
+		}
 		return true;
 	}
 	
@@ -0,0 +1,121 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.effects;
+
+import java.util.Iterator;
+
+import org.bukkit.block.Block;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerItem;
+import ch.njol.skript.timings.SkriptTimings;
+import ch.njol.skript.util.BlockChangeQueue;
+import ch.njol.util.Kleenean;
+
+@Name("Change Blocks Over Time")
+@Description({"Sets or removes many blocks without freezing the server: the blocks are changed chunk by chunk over the following ticks, spending at most the time set in the config per tick.",
+		"The rest of the trigger is executed once all blocks have been changed, as if there was a delay."})
+@Examples({"set blocks in radius 50 around {arena.center} to air over time",
+		"broadcast \"The arena has been reset!\""})
+@Since("2.2-dev30d")
+public class EffChangeBlocksOverTime extends Effect {
+	static {
+		Skript.registerEffect(EffChangeBlocksOverTime.class,
+				"set %blocks% to %itemtype% over time",
+				"(delete|clear|remove) %blocks% over time");
+	}
+	
+	@SuppressWarnings("null")
+	private Expression<Block> blocks;
+	@Nullable
+	private Expression<ItemType> type;
+	
+	@SuppressWarnings({"unchecked", "null"})
+	@Override
+	public boolean init(final Expression<?>[] exprs, final int matchedPattern, final Kleenean isDelayed, final ParseResult parseResult) {
+		blocks = (Expression<Block>) exprs[0];
+		if (matchedPattern == 0)
+			type = (Expression<ItemType>) exprs[1];
+		ScriptLoader.hasDelayBefore = Kleenean.TRUE;
+		return true;
+	}
+	
+	@Override
+	@Nullable
+	protected TriggerItem walk(final Event e) {
+		debug(e, true);
+		final Iterator<? extends Block> iter = blocks.iterator(e);
+		final ItemType t;
+		if (type != null) {
+			final ItemType i = type.getSingle(e);
+			if (i == null)
+				return getNext();
+			t = i.getBlock();
+		} else {
+			t = null;
+		}
+		if (iter == null || !iter.hasNext())
+			return getNext();
+			
+		final TriggerItem next = getNext();
+		if (next != null)
+			Delay.addDelayedEvent(e);
+		BlockChangeQueue.add(iter, t, next == null ? null : new Runnable() {
+			@Override
+			public void run() {
+				Object timing = null;
+				if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
+					final Trigger trigger = getTrigger();
+					if (trigger != null)
+						timing = SkriptTimings.start(trigger.getDebugLabel());
+				}
+				
+				TriggerItem.walk(next, e);
+				
+				SkriptTimings.stop(timing);
+			}
+		});
+		return null;
+	}
+	
+	@Override
+	protected void execute(final Event e) {
+		throw new UnsupportedOperationException();
+	}
+	
+	@Override
+	public String toString(final @Nullable Event e, final boolean debug) {
+		final Expression<ItemType> type = this.type;
+		return (type == null ? "remove " + blocks.toString(e, debug) : "set " + blocks.toString(e, debug) + " to " + type.toString(e, debug)) + " over time";
+	}
+	
+}
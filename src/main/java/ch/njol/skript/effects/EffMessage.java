@@ -29,6 +29,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
+import ch.njol.skript.ScriptLoader;
 import ch.njol.skript.Skript;
 import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
@@ -37,6 +38,7 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.skript.lang.VariableString;
 import ch.njol.skript.util.chat.BungeeConverter;
 import ch.njol.skript.util.chat.ChatMessages;
@@ -56,6 +58,7 @@ import net.md_5.bungee.chat.ComponentSerializer;
 		"if the targeted entity exists:",
 		"	message \"You're currently looking at a %type of the targeted entity%!\""})
 @Since("1.0, 2.2-dev26 (advanced features)")
+@ThreadSafe
 public class EffMessage extends Effect {
 	
 	static {
@@ -74,6 +77,8 @@ public class EffMessage extends Effect {
 	public boolean init(final Expression<?>[] exprs, final int matchedPattern, final Kleenean isDelayed, final ParseResult parser) {
 		messages = (Expression<String>) exprs[0];
 		canSendRaw = messages instanceof VariableString;
+		if (!canSendRaw) // the parts of variable strings are checked by the string itself
+			ScriptLoader.checkThreadSafeValues(messages);
 		recipients = (Expression<CommandSender>) exprs[1];
 		return true;
 	}
@@ -37,6 +37,7 @@ import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.util.Direction;
+import ch.njol.skript.util.EntityIndex;
 import ch.njol.skript.util.Utils;
 import ch.njol.util.Kleenean;
 
@@ -93,6 +94,7 @@ public class EffTeleport extends Effect {
 				((PlayerRespawnEvent) e).setRespawnLocation(loc);
 			} else {
 				entity.teleport(loc);
+				EntityIndex.invalidate();
 			}
 		}
 	}
@@ -58,6 +58,7 @@ import ch.njol.skript.localization.LanguageChangeListener;
 import ch.njol.skript.localization.Message;
 import ch.njol.skript.localization.Noun;
 import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.EntityIndex;
 import ch.njol.util.Kleenean;
 import ch.njol.util.coll.CollectionUtils;
 import ch.njol.yggdrasil.Fields;
@@ -418,6 +419,7 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 			final E e = loc.getWorld().spawn(loc, getType());
 			if (e == null)
 				throw new IllegalArgumentException();
+			EntityIndex.invalidate();
 			if (baby.isTrue()){
 				if(e instanceof Ageable)
 					((Ageable) e).setBaby();
@@ -447,7 +449,7 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		assert worlds != null && worlds.length > 0 : Arrays.toString(worlds);
 		final List<E> list = new ArrayList<E>();
 		for (final World w : worlds) {
-			for (final E e : w.getEntitiesByClass(getType()))
+			for (final E e : EntityIndex.getEntities(w, getType()))
 				if (match(e))
 					list.add(e);
 		}
@@ -483,7 +485,7 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		if (worlds == null)
 			worlds = Bukkit.getWorlds().toArray(new World[0]);
 		for (final World w : worlds) {
-			for (final E e : w.getEntitiesByClass(type)) {
+			for (final E e : EntityIndex.getEntities(w, type)) {
 				for (final EntityData<?> t : types) {
 					if (t.isInstance(e)) {
 						list.add(e);
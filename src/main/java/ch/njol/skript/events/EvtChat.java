@@ -19,9 +19,9 @@
  */
 package ch.njol.skript.events;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.bukkit.event.Event;
 import org.bukkit.event.EventException;
@@ -53,40 +53,60 @@ public class EvtChat extends SelfRegisteringSkriptEvent {
 				.since("1.4.1");
 	}
 	
-	final static Collection<Trigger> triggers = new ArrayList<>();
+	/**
+	 * Chat events are usually called asynchronously, thus this collection is iterated outside of the main thread.
+	 */
+	final static Collection<Trigger> triggers = new CopyOnWriteArrayList<>();
 	
 	private static boolean registeredExecutor = false;
 	private final static EventExecutor executor = new EventExecutor() {
 		
-		final void execute(final Event e) {
+		/**
+		 * Executes triggers in the order they were registered in.
+		 * 
+		 * @param start The index of the first trigger to execute
+		 * @param threadSafeOnly Whether to stop at the first trigger that is not {@link Trigger#isThreadSafe() thread-safe}
+		 * @return The index of the trigger that was stopped at, or the number of triggers if all have been executed
+		 */
+		final int execute(final Event e, final Trigger[] ts, final int start, final boolean threadSafeOnly) {
 			SkriptEventHandler.logEventStart(e);
-			for (final Trigger t : triggers) {
-				assert t != null : triggers;
+			int i = start;
+			for (; i < ts.length; i++) {
+				final Trigger t = ts[i];
+				if (threadSafeOnly && !t.isThreadSafe())
+					break;
 				SkriptEventHandler.logTriggerStart(t);
 				t.execute(e);
 				SkriptEventHandler.logTriggerEnd(t);
 			}
 			SkriptEventHandler.logEventEnd();
+			return i;
 		}
 		
 		@Override
 		public void execute(final @Nullable Listener l, final @Nullable Event e) throws EventException {
 			if (e == null)
 				return;
-			if (!triggers.isEmpty()) {
-				if (e instanceof PlayerChatEvent || !e.isAsynchronous()) {
-					execute(e);
-					return;
-				}
-				Task.callSync(new Callable<Void>() {
-					@Override
-					@Nullable
-					public Void call() throws Exception {
-						execute(e);
-						return null;
-					}
-				});
+			final Trigger[] ts = triggers.toArray(new Trigger[0]);
+			if (ts.length == 0)
+				return;
+			if (e instanceof PlayerChatEvent || !e.isAsynchronous()) {
+				execute(e, ts, 0, false);
+				return;
 			}
+			// leading triggers that only consist of thread-safe elements are executed right away, the others have to wait for the main thread,
+			// so that every trigger sees the event as changed by the triggers before it
+			final int unsafe = execute(e, ts, 0, true);
+			if (unsafe == ts.length)
+				return;
+			Task.callSync(new Callable<Void>() {
+				@Override
+				@Nullable
+				public Void call() throws Exception {
+					execute(e, ts, unsafe, false);
+					return null;
+				}
+			});
 		}
 	};
 	
@@ -19,16 +19,15 @@
  */
 package ch.njol.skript.events;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map.Entry;
+import java.util.Arrays;
+import java.util.WeakHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventException;
 import org.bukkit.event.Listener;
@@ -89,12 +88,86 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 	}
 	
 //	private final static HashMap<BlockLocation, List<Trigger>> blockTriggers = new HashMap<BlockLocation, List<Trigger>>();
-	final static HashMap<Integer, List<Trigger>> itemTypeTriggers = new HashMap<>();
+	
+	/**
+	 * The triggers listening for a single block id, together with the block data values each trigger matches.
+	 */
+	private final static class IdTriggers {
+		Trigger[] triggers = new Trigger[0];
+		/**
+		 * Bitmasks of the matched data values (bit n set = data value n matches), parallel to {@link #triggers}.
+		 */
+		int[] dataMasks = new int[0];
+		/**
+		 * Union of all {@link #dataMasks}
+		 */
+		int dataMask = 0;
+		
+		void add(final Trigger t, final int mask) {
+			final int n = triggers.length;
+			triggers = Arrays.copyOf(triggers, n + 1);
+			dataMasks = Arrays.copyOf(dataMasks, n + 1);
+			triggers[n] = t;
+			dataMasks[n] = mask;
+			dataMask |= mask;
+		}
+		
+		void remove(final Trigger t) {
+			int n = 0;
+			dataMask = 0;
+			for (int i = 0; i < triggers.length; i++) {
+				if (triggers[i] == t)
+					continue;
+				triggers[n] = triggers[i];
+				dataMasks[n] = dataMasks[i];
+				dataMask |= dataMasks[i];
+				n++;
+			}
+			if (n != triggers.length) {
+				triggers = Arrays.copyOf(triggers, n);
+				dataMasks = Arrays.copyOf(dataMasks, n);
+			}
+		}
+	}
+	
+	/**
+	 * Triggers indexed by block id. Block data values are 4 bits, thus a trigger's matched data values fit into a bitmask.
+	 */
+	final static IdTriggers[] idTriggers = new IdTriggers[Skript.MAXBLOCKID + 1];
+	private static int registeredIds = 0;
+	
 	@SuppressWarnings("null")
 	ItemType[] types = null;
 //	private World world;
 //	private int x, y, z;
 	
+	/**
+	 * The block a player was last seen standing on. The 'from' location of a move event is usually the 'to' location of the previous one, thus this saves looking up
+	 * the block the player moved away from. Only the id is remembered, and only used if it matches the block the player moved onto: a player is still on the same
+	 * block if only its data changed, e.g. if a crop grew.
+	 */
+	private final static class OnBlock {
+		@Nullable
+		World world;
+		int x, z;
+		double y;
+		int id;
+		
+		boolean isAt(final Location l) {
+			return world == l.getWorld() && x == l.getBlockX() && z == l.getBlockZ() && y == l.getY();
+		}
+		
+		void set(final Location l, final int id) {
+			world = l.getWorld();
+			x = l.getBlockX();
+			z = l.getBlockZ();
+			y = l.getY();
+			this.id = id;
+		}
+	}
+	
+	private final static WeakHashMap<Player, OnBlock> lastOnBlocks = new WeakHashMap<>();
+	
 	private static boolean registeredExecutor = false;
 	private final static EventExecutor executor = new EventExecutor() {
 		@SuppressWarnings("null")
@@ -102,43 +175,50 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 		public void execute(final @Nullable Listener l, final @Nullable Event event) throws EventException {
 			if (event == null)
 				return;
+			if (registeredIds == 0)
+				return;
 			final PlayerMoveEvent e = (PlayerMoveEvent) event;
 			final Location from = e.getFrom(), to = e.getTo();
-//			if (!blockTriggers.isEmpty()) {
-//				final List<Trigger> ts = blockTriggers.get(new BlockLocation(to.getWorld(), to.getBlockX(), to.getBlockY(), to.getBlockZ()));
-//				if (ts != null) {
-//					for (final Trigger t : ts) {
-//						SkriptEventHandler.logTriggerStart(t);
-//						t.start(e);
-//						SkriptEventHandler.logTriggerEnd(t);
-//					}
-//				}
-//			}
-			if (!itemTypeTriggers.isEmpty()) {
-				final int id = getOnBlock(to);
-				if (id == 0)
-					return;
-				final List<Trigger> ts = itemTypeTriggers.get(id);
-				if (ts == null)
-					return;
-				final int y = getBlockY(to.getY(), id);
-				if (to.getWorld().equals(from.getWorld()) && to.getBlockX() == from.getBlockX() && to.getBlockZ() == from.getBlockZ() && y == getBlockY(from.getY(), getOnBlock(from)) && getOnBlock(from) == id)
+			final boolean sameColumn = to.getWorld() == from.getWorld() && to.getBlockX() == from.getBlockX() && to.getBlockZ() == from.getBlockZ();
+			if (sameColumn && to.getY() == from.getY()) // only looked around
+				return;
+				
+			OnBlock last = lastOnBlocks.get(e.getPlayer());
+			if (last == null)
+				lastOnBlocks.put(e.getPlayer(), last = new OnBlock());
+			final boolean cached = sameColumn && last.isAt(from);
+			final int lastId = last.id;
+			final int id = getOnBlock(to);
+			last.set(to, id);
+			
+			final IdTriggers ts = id <= 0 || id > Skript.MAXBLOCKID ? null : idTriggers[id];
+			if (ts == null)
+				return;
+			final int y = getBlockY(to.getY(), id);
+			if (sameColumn) {
+				final int fromId = cached && lastId == id ? id : getOnBlock(from);
+				if (fromId == id && y == getBlockY(from.getY(), fromId)) // still on the same block
 					return;
-				SkriptEventHandler.logEventStart(e);
-				final byte data = to.getWorld().getBlockAt(to.getBlockX(), y, to.getBlockZ()).getData();
-				triggersLoop: for (final Trigger t : ts) {
-					final EvtMoveOn se = (EvtMoveOn) t.getEvent();
-					for (final ItemType i : se.types) {
-						if (i.isOfType(id, data)) {
-							SkriptEventHandler.logTriggerStart(t);
-							t.execute(e);
-							SkriptEventHandler.logTriggerEnd(t);
-							continue triggersLoop;
-						}
-					}
-				}
-				SkriptEventHandler.logEventEnd();
 			}
+			final byte data = to.getWorld().getBlockAt(to.getBlockX(), y, to.getBlockZ()).getData();
+			if (data < 0 || data >= 32)
+				return;
+			final int dataBit = 1 << data;
+			if ((ts.dataMask & dataBit) == 0)
+				return;
+				
+			SkriptEventHandler.logEventStart(e);
+			final Trigger[] triggers = ts.triggers;
+			final int[] dataMasks = ts.dataMasks;
+			for (int i = 0; i < triggers.length; i++) {
+				if ((dataMasks[i] & dataBit) == 0)
+					continue;
+				final Trigger t = triggers[i];
+				SkriptEventHandler.logTriggerStart(t);
+				t.execute(e);
+				SkriptEventHandler.logTriggerEnd(t);
+			}
+			SkriptEventHandler.logEventEnd();
 		}
 	};
 	
@@ -216,16 +296,27 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 //				blockTriggers.put(l, ts = new ArrayList<Trigger>());
 //			ts.add(trigger);
 //		} else {
+		final int[] masks = new int[Skript.MAXBLOCKID + 1];
 		for (final ItemType t : types) {
 			for (final ItemData d : t) {
-				if (d.getId() > Skript.MAXBLOCKID)
+				if (d.getId() <= 0 || d.getId() > Skript.MAXBLOCKID)
 					continue;
-				List<Trigger> ts = itemTypeTriggers.get(d.getId());
-				if (ts == null)
-					itemTypeTriggers.put(d.getId(), ts = new ArrayList<>());
-				ts.add(trigger);
+				for (short data = 0; data < 32; data++) {
+					if (d.isOfType(d.getId(), data))
+						masks[d.getId()] |= 1 << data;
+				}
 			}
 		}
+		for (int id = 0; id < masks.length; id++) {
+			if (masks[id] == 0)
+				continue;
+			IdTriggers ts = idTriggers[id];
+			if (ts == null) {
+				idTriggers[id] = ts = new IdTriggers();
+				registeredIds++;
+			}
+			ts.add(trigger, masks[id]);
+		}
 //		}
 		if (!registeredExecutor) {
 			Bukkit.getPluginManager().registerEvent(PlayerMoveEvent.class, new Listener() {}, SkriptConfig.defaultEventPriority.value(), executor, Skript.getInstance(), true);
@@ -242,19 +333,24 @@ public class EvtMoveOn extends SelfRegisteringSkriptEvent { // TODO on jump
 //			if (ts.isEmpty())
 //				i.remove();
 //		}
-		final Iterator<Entry<Integer, List<Trigger>>> i2 = itemTypeTriggers.entrySet().iterator();
-		while (i2.hasNext()) {
-			final List<Trigger> ts = i2.next().getValue();
+		for (int id = 0; id < idTriggers.length; id++) {
+			final IdTriggers ts = idTriggers[id];
+			if (ts == null)
+				continue;
 			ts.remove(t);
-			if (ts.isEmpty())
-				i2.remove();
+			if (ts.triggers.length == 0) {
+				idTriggers[id] = null;
+				registeredIds--;
+			}
 		}
 	}
 	
 	@Override
 	public void unregisterAll() {
 //		blockTriggers.clear();
-		itemTypeTriggers.clear();
+		Arrays.fill(idTriggers, null);
+		registeredIds = 0;
+		lastOnBlocks.clear();
 	}
 	
 }
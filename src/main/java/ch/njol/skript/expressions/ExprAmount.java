@@ -19,6 +19,8 @@
  */
 package ch.njol.skript.expressions;
 
+import java.util.Iterator;
+
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -82,6 +84,17 @@ public class ExprAmount extends SimpleExpression<Integer> {
 	
 	@Override
 	protected Integer[] get(final Event e) {
+		if (expr.getAnd() && expr.hasLazyIterator()) {
+			final Iterator<?> iter = expr.iterator(e);
+			int amount = 0;
+			if (iter != null) {
+				while (iter.hasNext()) {
+					iter.next();
+					amount++;
+				}
+			}
+			return new Integer[] {amount};
+		}
 		return new Integer[] {expr.getArray(e).length};
 	}
 	
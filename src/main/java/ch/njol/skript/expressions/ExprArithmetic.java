@@ -33,6 +33,7 @@ import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.skript.util.Patterns;
@@ -48,6 +49,7 @@ import ch.njol.util.Kleenean;
 		"	message \"Two useless numbers: %loop-num*2 - 5%, %2^loop-num - 1%\"",
 		"message \"You have %health of player * 2% half hearts of HP!\""})
 @Since("1.4.2")
+@ThreadSafe
 public class ExprArithmetic extends SimpleExpression<Number> {
 	
 	private static enum Operator {
@@ -68,6 +68,11 @@ public class ExprBlockSphere extends SimpleExpression<Block> {
 		return true;
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return true;
+	}
+	
 	@Override
 	public Iterator<Block> iterator(final Event e) {
 		final Location l = center.getSingle(e);
@@ -117,6 +117,11 @@ public class ExprBlocks extends SimpleExpression<Block> {
 		return r.toArray(new Block[r.size()]);
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return true;
+	}
+	
 	@Override
 	@Nullable
 	public Iterator<Block> iterator(final Event e) {
@@ -23,6 +23,7 @@ import org.bukkit.ChatColor;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
+import ch.njol.skript.ScriptLoader;
 import ch.njol.skript.Skript;
 import ch.njol.skript.classes.Converter;
 import ch.njol.skript.doc.Description;
@@ -33,6 +34,8 @@ import ch.njol.skript.expressions.base.PropertyExpression;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
+import ch.njol.skript.lang.VariableString;
 import ch.njol.skript.util.Utils;
 import ch.njol.util.Kleenean;
 
@@ -47,6 +50,7 @@ import ch.njol.util.Kleenean;
 		"	trigger:",
 		"		set display name of the player-argument to uncoloured display name of the player-argument"})
 @Since("2.0")
+@ThreadSafe
 public class ExprColoured extends PropertyExpression<String, String> {
 	static {
 		Skript.registerExpression(ExprColoured.class, String.class, ExpressionType.COMBINED,
@@ -59,6 +63,8 @@ public class ExprColoured extends PropertyExpression<String, String> {
 	@Override
 	public boolean init(final Expression<?>[] exprs, final int matchedPattern, final Kleenean isDelayed, final ParseResult parseResult) {
 		setExpr((Expression<? extends String>) exprs[0]);
+		if (!(exprs[0] instanceof VariableString))
+			ScriptLoader.checkThreadSafeValues(exprs[0]);
 		color = matchedPattern == 0;
 		return true;
 	}
@@ -49,6 +49,7 @@ import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.log.BlockingLogHandler;
 import ch.njol.skript.log.LogHandler;
 import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.util.EntityIndex;
 import ch.njol.util.Kleenean;
 import ch.njol.util.NullableChecker;
 import ch.njol.util.StringUtils;
@@ -169,6 +170,11 @@ public class ExprEntities extends SimpleExpression<Entity> {
 		return false;
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return true;
+	}
+	
 	@SuppressWarnings("null")
 	@Override
 	@Nullable
@@ -190,14 +196,12 @@ public class ExprEntities extends SimpleExpression<Entity> {
 			final Number n = radius.getSingle(e);
 			if (n == null)
 				return null;
-			final double d = n.doubleValue();
-			final Collection<Entity> es = l.getWorld().getNearbyEntities(l, d, d, d);
-			final double radiusSquared = d * d * Skript.EPSILON_MULT;
+			final Collection<Entity> es = EntityIndex.getNearbyEntities(l, n.doubleValue());
 			final EntityData<?>[] ts = types.getAll(e);
 			return new CheckedIterator<>(es.iterator(), new NullableChecker<Entity>() {
 				@Override
 				public boolean check(final @Nullable Entity e) {
-					if (e == null || e.getLocation().distanceSquared(l) > radiusSquared)
+					if (e == null)
 						return false;
 					for (final EntityData<?> t : ts) {
 						if (t.isInstance(e))
@@ -227,7 +231,7 @@ public class ExprEntities extends SimpleExpression<Entity> {
 							w++;
 							if (w == ws.length)
 								return null;
-							curIter = ws[w].getEntitiesByClass(returnType).iterator();
+							curIter = EntityIndex.getEntities(ws[w], returnType).iterator();
 						}
 						while (curIter.hasNext()) {
 							final Entity current = curIter.next();
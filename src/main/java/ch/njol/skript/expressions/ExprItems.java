@@ -96,6 +96,11 @@ public class ExprItems extends SimpleExpression<ItemStack> {
 		return r.toArray(new ItemStack[r.size()]);
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return true;
+	}
+	
 	@Override
 	@Nullable
 	public Iterator<ItemStack> iterator(final Event e) {
@@ -83,6 +83,11 @@ public class ExprItemsIn extends SimpleExpression<Slot> {
 		return r.toArray(new Slot[r.size()]);
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return true;
+	}
+	
 	@Override
 	@Nullable
 	public Iterator<Slot> iterator(final Event e) {
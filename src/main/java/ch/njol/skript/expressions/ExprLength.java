@@ -24,6 +24,7 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.expressions.base.SimplePropertyExpression;
+import ch.njol.skript.lang.ThreadSafe;
 
 /**
  * @author Peter Güttinger
@@ -32,6 +33,7 @@ import ch.njol.skript.expressions.base.SimplePropertyExpression;
 @Description("The length of a text, in number of characters.")
 @Examples("set {_l} to length of the string argument")
 @Since("2.1")
+@ThreadSafe
 public class ExprLength extends SimplePropertyExpression<String, Integer> {
 	static {
 		register(ExprLength.class, Integer.class, "length", "strings");
@@ -41,6 +41,7 @@ import ch.njol.skript.events.util.PlayerChatEventHandler;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.log.ErrorQuality;
 import ch.njol.util.Kleenean;
@@ -69,6 +70,7 @@ import ch.njol.util.coll.CollectionUtils;
 		"	set the death message to \"%player% died!\""})
 @Since("1.4.6 (chat message), 1.4.9 (join & quit messages), 2.0 (death message)")
 @Events({"chat", "join", "quit", "death"})
+@ThreadSafe
 public class ExprMessage extends SimpleExpression<String> {
 	
 	@SuppressWarnings("unchecked")
@@ -85,6 +85,11 @@ public class ExprNumbers extends SimpleExpression<Number> {
 		return array;
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return true;
+	}
+	
 	@Override
 	@Nullable
 	public Iterator<Number> iterator(final Event e) {
@@ -44,6 +44,7 @@ import ch.njol.skript.log.ErrorQuality;
 import ch.njol.skript.log.LogEntry;
 import ch.njol.skript.log.ParseLogHandler;
 import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.registrations.ParseCache;
 import ch.njol.util.Kleenean;
 import ch.njol.util.NonNullPair;
 
@@ -144,7 +145,12 @@ public class ExprParse extends SimpleExpression<Object> {
 			if (c != null) {
 				final Parser<?> p = c.getParser();
 				assert p != null; // checked in init()
-				final Object o = p.parse(t, ParseContext.COMMAND);
+				Object o = ParseCache.get(t, c, ParseContext.COMMAND);
+				if (o == null) {
+					o = p.parse(t, ParseContext.COMMAND);
+					if (o != null && !h.hasLog())
+						ParseCache.put(t, c, ParseContext.COMMAND, o);
+				}
 				if (o != null) {
 					final Object[] one = (Object[]) Array.newInstance(c.getC(), 1);
 					one[0] = o;
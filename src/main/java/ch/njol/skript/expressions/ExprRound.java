@@ -32,6 +32,7 @@ import ch.njol.skript.expressions.base.PropertyExpression;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.util.Kleenean;
 import ch.njol.util.Math2;
 
@@ -45,6 +46,7 @@ import ch.njol.util.Math2;
 		"set {_x} to floor({_y}) - ceil({_x})",
 		"add rounded down argument to the player's health"})
 @Since("2.0")
+@ThreadSafe
 public class ExprRound extends PropertyExpression<Number, Long> {
 	static {
 		Skript.registerExpression(ExprRound.class, Long.class, ExpressionType.PROPERTY,
@@ -35,6 +35,7 @@ import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.ThreadSafe;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.util.Kleenean;
 
@@ -45,6 +46,7 @@ import ch.njol.util.Kleenean;
 @Description("Copy of given text in upper or lower case.")
 @Examples("\"oops!\" in upper case # OOPS!")
 @Since("2.2-dev16")
+@ThreadSafe
 public class ExprStringCase extends SimpleExpression<String> {
 
 	private final static int UPPER = 0, LOWER = 1;
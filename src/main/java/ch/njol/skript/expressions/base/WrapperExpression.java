@@ -93,6 +93,11 @@ public abstract class WrapperExpression<T> extends SimpleExpression<T> {
 		return expr.getArray(e);
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return expr.hasLazyIterator();
+	}
+	
 	@Override
 	@Nullable
 	public Iterator<? extends T> iterator(final Event e) {
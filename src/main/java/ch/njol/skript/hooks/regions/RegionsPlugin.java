@@ -22,7 +22,11 @@ package ch.njol.skript.hooks.regions;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.bukkit.Location;
@@ -33,6 +37,7 @@ import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.hooks.Hook;
 import ch.njol.skript.hooks.regions.classes.Region;
+import ch.njol.skript.util.TickCache;
 import ch.njol.skript.variables.Variables;
 import ch.njol.yggdrasil.ClassResolver;
 
@@ -74,9 +79,85 @@ public abstract class RegionsPlugin<P extends Plugin> extends Hook<P> {
 		return true;
 	}
 	
+	/**
+	 * Position of a block, used as key of the caches below.
+	 */
+	private final static class BlockKey {
+		
+		private final World world;
+		private final int x, y, z;
+		
+		BlockKey(final World world, final Location l) {
+			this.world = world;
+			x = l.getBlockX();
+			y = l.getBlockY();
+			z = l.getBlockZ();
+		}
+		
+		@Override
+		public int hashCode() {
+			return ((x * 31 + z) * 31 + y) * 31 + world.hashCode();
+		}
+		
+		@Override
+		public boolean equals(final @Nullable Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof BlockKey))
+				return false;
+			final BlockKey other = (BlockKey) obj;
+			return x == other.x && y == other.y && z == other.z && world.equals(other.world);
+		}
+		
+	}
+	
+	/*
+	 * Regions plugins don't provide events for changes to their regions, thus the results of lookups are only cached for the current tick, which is enough to
+	 * make e.g. region enter/leave events and conditions that are checked for many players or blocks in the same tick cheap.
+	 */
+	private final static Map<BlockKey, Set<? extends Region>> regionsCache = new HashMap<>();
+	private final static Map<Player, Map<BlockKey, Boolean>> canBuildCache = new HashMap<>();
+	
+	private final static TickCache cache = new TickCache() {
+		@Override
+		protected void clear() {
+			regionsCache.clear();
+			canBuildCache.clear();
+		}
+	};
+	
+	/**
+	 * @return Whether the caches can be used, i.e. whether this is the main thread and the caches will be invalidated at the end of the tick
+	 */
+	private static boolean useCache() {
+		return cache.use();
+	}
+	
+	/**
+	 * Discards all cached regions and build permissions. Called automatically at the end of every tick in which the cache was used, but should also be called
+	 * if regions are known to have changed within the current tick.
+	 */
+	public static void invalidateCache() {
+		cache.invalidate();
+	}
+	
 	public abstract boolean canBuild_i(Player p, Location l);
 	
 	public final static boolean canBuild(final Player p, final Location l) {
+		final World w = l.getWorld();
+		if (w == null || !useCache())
+			return canBuild_(p, l);
+		Map<BlockKey, Boolean> blocks = canBuildCache.get(p);
+		if (blocks == null)
+			canBuildCache.put(p, blocks = new HashMap<>());
+		final BlockKey k = new BlockKey(w, l);
+		Boolean b = blocks.get(k);
+		if (b == null)
+			blocks.put(k, b = canBuild_(p, l));
+		return b;
+	}
+	
+	private final static boolean canBuild_(final Player p, final Location l) {
 		for (final RegionsPlugin<?> pl : plugins) {
 			if (!pl.canBuild_i(p, l))
 				return false;
@@ -86,7 +167,42 @@ public abstract class RegionsPlugin<P extends Plugin> extends Hook<P> {
 	
 	public abstract Collection<? extends Region> getRegionsAt_i(Location l);
 	
+	/**
+	 * @param l
+	 * @return The regions at the given location. The returned set must not be modified.
+	 */
 	public final static Set<? extends Region> getRegionsAt(final Location l) {
+		if (!useCache())
+			return getRegionsAt_(l);
+		return getRegionsAt(l, regionsCache);
+	}
+	
+	/**
+	 * Gets the regions at many locations at once. Each block is only looked up once, even if it contains multiple of the given locations.
+	 * 
+	 * @param ls
+	 * @return The regions at each of the given locations, in the same order as the locations. The returned sets must not be modified.
+	 */
+	public final static List<Set<? extends Region>> getRegionsAt(final Location[] ls) {
+		final Map<BlockKey, Set<? extends Region>> cache = useCache() ? regionsCache : new HashMap<BlockKey, Set<? extends Region>>();
+		final List<Set<? extends Region>> r = new ArrayList<>(ls.length);
+		for (final Location l : ls)
+			r.add(getRegionsAt(l, cache));
+		return r;
+	}
+	
+	private final static Set<? extends Region> getRegionsAt(final Location l, final Map<BlockKey, Set<? extends Region>> cache) {
+		final World w = l.getWorld();
+		if (w == null)
+			return getRegionsAt_(l);
+		final BlockKey k = new BlockKey(w, l);
+		Set<? extends Region> r = cache.get(k);
+		if (r == null)
+			cache.put(k, r = Collections.unmodifiableSet(getRegionsAt_(l)));
+		return r;
+	}
+	
+	private final static Set<Region> getRegionsAt_(final Location l) {
 		final Set<Region> r = new HashSet<>();
 		for (final RegionsPlugin<?> pl : plugins) {
 			r.addAll(pl.getRegionsAt_i(l));
@@ -21,10 +21,13 @@ package ch.njol.skript.hooks.regions.events;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventException;
@@ -109,6 +112,7 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 	@Override
 	public void unregisterAll() {
 		triggers.clear();
+		lastRegions.clear();
 	}
 	
 	private boolean applies(final Event e) {
@@ -139,6 +143,35 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 		me.setCancelled(e.isCancelled());
 	}
 	
+	/**
+	 * The block a player was last known to be in and the regions at that block.
+	 */
+	private final static class PlayerRegions {
+		
+		final World world;
+		final int x, y, z;
+		final Set<? extends Region> regions;
+		
+		PlayerRegions(final World world, final Location l, final Set<? extends Region> regions) {
+			this.world = world;
+			x = l.getBlockX();
+			y = l.getBlockY();
+			z = l.getBlockZ();
+			this.regions = regions;
+		}
+		
+		boolean isAt(final @Nullable World world, final Location l) {
+			return l.getBlockX() == x && l.getBlockZ() == z && l.getBlockY() == y && world == this.world;
+		}
+		
+	}
+	
+	/**
+	 * Regions can only change when a player moves into another block, thus the regions are only looked up when a player crosses a block boundary and the
+	 * regions of the block they came from are remembered from the previous lookup.
+	 */
+	final static Map<Player, PlayerRegions> lastRegions = new WeakHashMap<>();
+	
 	// even WorldGuard doesn't have events, and this way all region plugins are supported for sure.
 	private final static EventExecutor ee = new EventExecutor() {
 		@Nullable
@@ -152,11 +185,17 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 			last = event;
 			final PlayerMoveEvent e = (PlayerMoveEvent) event;
 			final Location to = e.getTo(), from = e.getFrom();
-			if (to != null && to.equals(from))
+			if (to == null)
+				return;
+			final World toWorld = to.getWorld(), fromWorld = from.getWorld();
+			final Player p = e.getPlayer();
+			final PlayerRegions known = lastRegions.get(p);
+			if (known != null && known.isAt(toWorld, to))
+				return;
+			if (toWorld == null || fromWorld == null)
 				return;
-			//if (to.getWorld().equals(from.getWorld()) && to.distanceSquared(from) < 2)
-			//	return;
-			final Set<? extends Region> oldRs = RegionsPlugin.getRegionsAt(from), newRs = RegionsPlugin.getRegionsAt(to);
+			final Set<? extends Region> oldRs = known != null && known.isAt(fromWorld, from) ? known.regions : RegionsPlugin.getRegionsAt(from);
+			final Set<? extends Region> newRs = RegionsPlugin.getRegionsAt(to);
 			for (final Region r : oldRs) {
 				if (!newRs.contains(r))
 					callEvent(r, e, false);
@@ -165,6 +204,11 @@ public class EvtRegionBorder extends SelfRegisteringSkriptEvent {
 				if (!oldRs.contains(r))
 					callEvent(r, e, true);
 			}
+			// if the move was cancelled the player stays where they were
+			if (e.isCancelled())
+				lastRegions.put(p, new PlayerRegions(fromWorld, from, oldRs));
+			else
+				lastRegions.put(p, new PlayerRegions(toWorld, to, newRs));
 		}
 	};
 	
@@ -77,6 +77,11 @@ public class ExprBlocksInRegion extends SimpleExpression<Block> {
 		return r.toArray(new Block[r.size()]);
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return true;
+	}
+	
 	@Override
 	@NonNull
 	public Iterator<Block> iterator(final Event e) {
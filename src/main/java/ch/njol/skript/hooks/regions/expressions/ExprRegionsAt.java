@@ -20,6 +20,7 @@
 package ch.njol.skript.hooks.regions.expressions;
 
 import java.util.ArrayList;
+import java.util.Set;
 
 import org.bukkit.Location;
 import org.bukkit.event.Event;
@@ -79,8 +80,8 @@ public class ExprRegionsAt extends SimpleExpression<Region> {
 		if (ls.length == 0)
 			return new Region[0];
 		final ArrayList<Region> r = new ArrayList<>();
-		for (final Location l : ls)
-			r.addAll(RegionsPlugin.getRegionsAt(l));
+		for (final Set<? extends Region> rs : RegionsPlugin.getRegionsAt(ls))
+			r.addAll(rs);
 		return r.toArray(new Region[r.size()]);
 	}
 	
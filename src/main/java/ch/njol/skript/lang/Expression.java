@@ -195,6 +195,20 @@ public interface Expression<T> extends SyntaxElement, Debuggable {
 	@Nullable
 	public Iterator<? extends T> iterator(Event e);
 	
+	/**
+	 * Returns whether {@link #iterator(Event)} computes this expression's values as they are requested instead of creating an array of all values first, e.g. by
+	 * iterating over blocks or entities directly.
+	 * <p>
+	 * Code that can stop early, e.g. {@link #check(Event, Checker, boolean)} or a condition that only needs to know whether there are any values, should use the
+	 * iterator of expressions that return true here. It must still only do this if {@link #getAnd()} is true, as the iterator of an 'or' list is not guaranteed to
+	 * return all values.
+	 * 
+	 * @return Whether this expression's iterator is lazy
+	 */
+	public default boolean hasLazyIterator() {
+		return false;
+	}
+	
 	/**
 	 * Checks whether the given 'loop-...' expression should match this loop, e.g. loop-block matches any loops that loop through blocks and loop-argument matches an
 	 * argument loop.
@@ -19,6 +19,7 @@
  */
 package ch.njol.skript.lang;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.WeakHashMap;
@@ -42,8 +43,9 @@ public class Loop extends TriggerSection {
 	
 	private final Expression<?> expr;
 	
-	private transient Map<Event, Object> current = new WeakHashMap<Event, Object>();
-	private transient Map<Event, Iterator<?>> currentIter = new WeakHashMap<Event, Iterator<?>>();
+	// synchronized as thread-safe triggers can be executed by multiple threads at once
+	private transient Map<Event, Object> current = Collections.synchronizedMap(new WeakHashMap<Event, Object>());
+	private transient Map<Event, Iterator<?>> currentIter = Collections.synchronizedMap(new WeakHashMap<Event, Iterator<?>>());
 	
 	@Nullable
 	private TriggerItem actualNext;
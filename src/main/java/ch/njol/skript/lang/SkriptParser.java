@@ -249,6 +249,8 @@ public class SkriptParser {
 							}
 							final T t = info.c.newInstance();
 							if (t.init(res.exprs, i, ScriptLoader.hasDelayBefore, res)) {
+								if (!info.threadSafe)
+									ScriptLoader.onlyThreadSafeElements = false;
 								log.printLog();
 								return t;
 							}
@@ -1139,6 +1141,7 @@ public class SkriptParser {
 				log.printError();
 				return null;
 			}
+			ScriptLoader.onlyThreadSafeElements = false; // functions can do anything
 			log.printLog();
 			return e;
 		} finally {
@@ -27,10 +27,15 @@ public class SyntaxElementInfo<E extends SyntaxElement> {
 	
 	public final Class<E> c;
 	public final String[] patterns;
+	/**
+	 * Whether the element's class is annotated with {@link ThreadSafe}
+	 */
+	public final boolean threadSafe;
 	
 	public SyntaxElementInfo(final String[] patterns, final Class<E> c) throws IllegalArgumentException {
 		this.patterns = patterns;
 		this.c = c;
+		threadSafe = c.isAnnotationPresent(ThreadSafe.class);
 		try {
 			c.getConstructor();
 //			if (!c.getDeclaredConstructor().isAccessible())
@@ -0,0 +1,41 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.lang;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a syntax element that can be executed outside of the main server thread, e.g. in an asynchronous chat event. Such an element must not access the world or any
+ * other server state that is not thread-safe itself, and must not use shared mutable state of its own.
+ * <p>
+ * Elements that use other expressions only have to be thread-safe themselves: whether the whole trigger is thread-safe is determined when it is loaded, see
+ * {@link Trigger#isThreadSafe()}. Elements that turn the values of other expressions into text must additionally check their types with
+ * {@link ch.njol.skript.ScriptLoader#checkThreadSafeValues(Expression)}, as e.g. an entity's name is read from the world.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ThreadSafe {
+
+}
@@ -37,6 +37,7 @@ public class Trigger extends TriggerSection {
 	private final File script;
 	private int line = -1; // -1 is default: it means there is no line number available
 	private String debugLabel;
+	private boolean threadSafe = false;
 	
 	public Trigger(final @Nullable File script, final String name, final SkriptEvent event, final List<TriggerItem> items) {
 		super(items);
@@ -109,4 +110,22 @@ public class Trigger extends TriggerSection {
 		return debugLabel;
 	}
 	
+	/**
+	 * Sets whether this trigger only consists of {@link ThreadSafe} elements.
+	 * Set by the script loader.
+	 * @param threadSafe Whether this trigger is thread-safe
+	 */
+	public void setThreadSafe(final boolean threadSafe) {
+		this.threadSafe = threadSafe;
+	}
+	
+	/**
+	 * Gets whether this trigger only consists of {@link ThreadSafe} elements,
+	 * i.e. whether it can be executed outside of the main server thread.
+	 * @return Whether this trigger is thread-safe
+	 */
+	public boolean isThreadSafe() {
+		return threadSafe;
+	}
+	
 }
@@ -28,7 +28,6 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
-import java.util.TreeMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -46,11 +45,9 @@ import ch.njol.skript.classes.Changer;
 import ch.njol.skript.classes.Changer.ChangeMode;
 import ch.njol.skript.classes.Changer.ChangerUtils;
 import ch.njol.skript.classes.ClassInfo;
-import ch.njol.skript.classes.Comparator.Relation;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.registrations.Classes;
-import ch.njol.skript.registrations.Comparators;
 import ch.njol.skript.registrations.Converters;
 import ch.njol.skript.util.StringMode;
 import ch.njol.skript.util.Utils;
@@ -199,7 +196,14 @@ public class Variable<T> implements Expression<T> {
 	 */
 	@Nullable
 	private Object getRaw(final Event e) {
-		final String n = name.toString(e).toLowerCase(Locale.ENGLISH);
+		return getRaw(e, name.toLowerCaseString(e));
+	}
+	
+	/**
+	 * @param n This variable's name, as returned by {@link VariableString#toLowerCaseString(Event)}
+	 */
+	@Nullable
+	private Object getRaw(final Event e, final String n) {
 		if (n.endsWith(Variable.SEPARATOR + "*") != list) // prevents e.g. {%expr%} where "%expr%" ends with "::*" from returning a Map
 			return null;
 		final Object val = !list ? convertIfOldPlayer(n, e, Variables.getVariable(n, e, local)) : Variables.getVariable(n, e, local);
@@ -211,13 +215,14 @@ public class Variable<T> implements Expression<T> {
 	@SuppressWarnings("unchecked")
 	@Nullable
 	private Object get(final Event e) {
-		final Object val = getRaw(e);
+		final String n = name.toLowerCaseString(e);
+		final Object val = getRaw(e, n);
 		if (!list)
 			return val;
 		if (val == null)
 			return Array.newInstance(types[0], 0);
 		final List<Object> l = new ArrayList<>();
-		final String name = StringUtils.substring(this.name.toString(e), 0, -1).toLowerCase(Locale.ENGLISH);
+		final String name = StringUtils.substring(n, 0, -1);
 		for (final Entry<String, ?> v : ((Map<String, ?>) val).entrySet()) {
 			if (v.getKey() != null && v.getValue() != null) {
 				Object o;
@@ -254,33 +259,32 @@ public class Variable<T> implements Expression<T> {
 	public Iterator<Pair<String, Object>> variablesIterator(final Event e) {
 		if (!list)
 			throw new SkriptAPIException("Looping a non-list variable");
-		final String name = StringUtils.substring(this.name.toString(e), 0, -1).toLowerCase(Locale.ENGLISH);
+		final String name = StringUtils.substring(this.name.toLowerCaseString(e), 0, -1);
 		final Object val = Variables.getVariable(name + "*", e, local);
 		if (val == null)
 			return new EmptyIterator<>();
-		assert val instanceof TreeMap;
-		// temporary list to prevent CMEs
+		assert val instanceof Map;
+		// iterates over a snapshot of the list to prevent CMEs
 		@SuppressWarnings("unchecked")
-		final Iterator<String> keys = new ArrayList<>(((Map<String, Object>) val).keySet()).iterator();
+		final Iterator<Pair<String, Object>> elements = Variables.getListElements((Map<String, Object>) val);
 		return new Iterator<Pair<String, Object>>() {
 			@Nullable
-			private String key;
-			@Nullable
-			private Object next = null;
+			private Pair<String, Object> next = null;
 			
 			@Override
 			public boolean hasNext() {
 				if (next != null)
 					return true;
-				while (keys.hasNext()) {
-					key = keys.next();
-					if (key != null) {
-						next = convertIfOldPlayer(name + key, e, Variables.getVariable(name + key, e, local));
-						if (next != null && !(next instanceof TreeMap))
-							return true;
+				while (elements.hasNext()) {
+					final Pair<String, Object> element = elements.next();
+					final Object value = element.getSecond();
+					if (value instanceof Player)
+						element.setSecond(convertIfOldPlayer(name + element.getFirst(), e, value));
+					if (element.getSecond() != null) {
+						next = element;
+						return true;
 					}
 				}
-				next = null;
 				return false;
 			}
 			
@@ -288,7 +292,8 @@ public class Variable<T> implements Expression<T> {
 			public Pair<String, Object> next() {
 				if (!hasNext())
 					throw new NoSuchElementException();
-				final Pair<String, Object> n = new Pair<>(key, next);
+				final Pair<String, Object> n = next;
+				assert n != null;
 				next = null;
 				return n;
 			}
@@ -300,21 +305,33 @@ public class Variable<T> implements Expression<T> {
 		};
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return list;
+	}
+	
 	@Override
 	public Iterator<T> iterator(final Event e) {
 		if (!list)
 			throw new SkriptAPIException("");
-		final String name = StringUtils.substring(this.name.toString(e), 0, -1).toLowerCase(Locale.ENGLISH);
-		final Object val = Variables.getVariable(name + "*", e, local);
+		final String n = this.name.toLowerCaseString(e);
+		final Object val = getRaw(e, n); // falls back to the default variable like getAll does
 		if (val == null)
 			return new EmptyIterator<>();
-		assert val instanceof TreeMap;
-		// temporary list to prevent CMEs
+		return iterator(e, n, val);
+	}
+	
+	/**
+	 * @param n This variable's name, as returned by {@link VariableString#toLowerCaseString(Event)}
+	 * @param val The value of this list variable
+	 */
+	private Iterator<T> iterator(final Event e, final String n, final Object val) {
+		final String name = StringUtils.substring(n, 0, -1);
+		assert val instanceof Map;
+		// iterates over a snapshot of the list to prevent CMEs
 		@SuppressWarnings("unchecked")
-		final Iterator<String> keys = new ArrayList<>(((Map<String, Object>) val).keySet()).iterator();
+		final Iterator<Pair<String, Object>> elements = Variables.getListElements((Map<String, Object>) val);
 		return new Iterator<T>() {
-			@Nullable
-			private String key;
 			@Nullable
 			private T next = null;
 			
@@ -323,16 +340,14 @@ public class Variable<T> implements Expression<T> {
 			public boolean hasNext() {
 				if (next != null)
 					return true;
-				while (keys.hasNext()) {
-					key = keys.next();
-					if (key != null) {
-						next = Converters.convert(Variables.getVariable(name + key, e, local), types);
-						next = (T) convertIfOldPlayer(name + key, e, next);
-						if (next != null && !(next instanceof TreeMap))
-							return true;
-					}
+				while (elements.hasNext()) {
+					final Pair<String, Object> element = elements.next();
+					next = Converters.convert(element.getSecond(), types);
+					if (next instanceof Player)
+						next = (T) convertIfOldPlayer(name + element.getFirst(), e, next);
+					if (next != null)
+						return true;
 				}
-				next = null;
 				return false;
 			}
 			
@@ -365,12 +380,12 @@ public class Variable<T> implements Expression<T> {
 	}
 	
 	private final void set(final Event e, final @Nullable Object value) {
-		Variables.setVariable("" + name.toString(e).toLowerCase(Locale.ENGLISH), value, e, local);
+		Variables.setVariable(name.toLowerCaseString(e), value, e, local);
 	}
 	
 	private final void setIndex(final Event e, final String index, final @Nullable Object value) {
 		assert list;
-		final String s = name.toString(e).toLowerCase(Locale.ENGLISH);
+		final String s = name.toLowerCaseString(e);
 		assert s.endsWith("::*") : s + "; " + name;
 		Variables.setVariable(s.substring(0, s.length() - 1) + index.toLowerCase(Locale.ENGLISH), value, e, local);
 	}
@@ -454,32 +469,12 @@ public class Variable<T> implements Expression<T> {
 				assert delta != null;
 				if (list) {
 					final Map<String, Object> o = (Map<String, Object>) getRaw(e);
-					if (mode == ChangeMode.REMOVE) {
-						if (o == null)
-							return;
-						final ArrayList<String> rem = new ArrayList<>(); // prevents CMEs
-						for (final Object d : delta) {
-							for (final Entry<String, Object> i : o.entrySet()) {
-								if (Relation.EQUAL.is(Comparators.compare(i.getValue(), d))) {
-									rem.add(i.getKey());
-									break;
-								}
-							}
-						}
-						for (final String r : rem) {
-							assert r != null;
-							setIndex(e, r, null);
-						}
-					} else if (mode == ChangeMode.REMOVE_ALL) {
+					if (mode == ChangeMode.REMOVE || mode == ChangeMode.REMOVE_ALL) {
 						if (o == null)
 							return;
 						final ArrayList<String> rem = new ArrayList<>(); // prevents CMEs
-						for (final Entry<String, Object> i : o.entrySet()) {
-							for (final Object d : delta) {
-								if (Relation.EQUAL.is(Comparators.compare(i.getValue(), d)))
-									rem.add(i.getKey());
-							}
-						}
+						for (final Object d : delta)
+							rem.addAll(Variables.findListIndices(o, d, mode == ChangeMode.REMOVE_ALL, local));
 						for (final String r : rem) {
 							assert r != null;
 							setIndex(e, r, null);
@@ -489,8 +484,7 @@ public class Variable<T> implements Expression<T> {
 						int i = 1;
 						for (final Object d : delta) {
 							if (o != null)
-								while (o.containsKey("" + i))
-									i++;
+								i = Variables.getFreeListIndex(o, local);
 							setIndex(e, "" + i, d);
 							i++;
 						}
@@ -598,12 +592,14 @@ public class Variable<T> implements Expression<T> {
 	
 	@Override
 	public boolean check(final Event e, final Checker<? super T> c, final boolean negated) {
+		if (list)
+			return SimpleExpression.check(iterator(e), c, negated, getAnd());
 		return SimpleExpression.check(getAll(e), c, negated, getAnd());
 	}
 	
 	@Override
 	public boolean check(final Event e, final Checker<? super T> c) {
-		return SimpleExpression.check(getAll(e), c, false, getAnd());
+		return check(e, c, false);
 	}
 	
 	@Override
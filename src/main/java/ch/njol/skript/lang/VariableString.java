@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.regex.Pattern;
@@ -38,6 +39,7 @@ import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.classes.Changer.ChangeMode;
 import ch.njol.skript.classes.ClassInfo;
 import ch.njol.skript.classes.Parser;
+import ch.njol.skript.classes.data.JavaClasses;
 import ch.njol.skript.config.Config;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.util.SimpleExpression;
@@ -88,6 +90,15 @@ public class VariableString implements Expression<String> {
 	private final String simpleUnformatted;
 	private final StringMode mode;
 	
+	/**
+	 * Lower case versions of {@link #simple} and {@link #string}, created when {@link #toLowerCaseString(Event)} is first called. <tt>lowerCaseString</tt> is an
+	 * empty array if the string cannot be lowered in parts (see there).
+	 */
+	@Nullable
+	private String simpleLowerCase = null;
+	@Nullable
+	private Object[] lowerCaseString = null;
+	
 	/**
 	 * Creates a new VariableString which does not contain variables.
 	 * @param s Content for string.
@@ -242,6 +253,7 @@ public class VariableString implements Expression<String> {
 							log.printErrors("Can't understand this expression: " + s.substring(c + 1, c2));
 							return null;
 						} else {
+							ScriptLoader.checkThreadSafeValues(expr);
 							if (mode != StringMode.MESSAGE) {
 								string.add(expr);
 							} else {
@@ -415,7 +427,9 @@ public class VariableString implements Expression<String> {
 			final Object o = string[i];
 			if (o instanceof Expression<?>) {
 				assert mode != StringMode.MESSAGE;
-				b.append(Classes.toString(((Expression<?>) o).getArray(e), true, mode));
+				final Object[] values = ((Expression<?>) o).getArray(e);
+				if (!appendNumber(b, values, mode))
+					b.append(Classes.toString(values, true, mode));
 			} else if (o instanceof ExpressionInfo) {
 				assert mode == StringMode.MESSAGE;
 				final ExpressionInfo info = (ExpressionInfo) o;
@@ -427,7 +441,9 @@ public class VariableString implements Expression<String> {
 					final String style = Utils.getChatStyle(s);
 					b.append(style == null ? "<" + s + ">" : style);
 				} else {
-					b.append(Classes.toString(info.expr.getArray(e), flags, getLastColor(b)));
+					final Object[] values = info.expr.getArray(e);
+					if (!appendNumber(b, values, StringMode.MESSAGE))
+						b.append(Classes.toString(values, flags, getLastColor(b)));
 				}
 			} else {
 				b.append(o);
@@ -436,6 +452,102 @@ public class VariableString implements Expression<String> {
 		return "" + b.toString();
 	}
 	
+	/**
+	 * Returns the same as <tt>toString(e).toLowerCase(Locale.ENGLISH)</tt>, which is how variable names are made case insensitive.
+	 * <p>
+	 * The constant parts of the string are only lowered once, thus only the values of the expressions in the string have to be lowered every time.
+	 * 
+	 * @param e
+	 * @return This string in lower case
+	 */
+	public String toLowerCaseString(final Event e) {
+		if (isSimple) {
+			String s = simpleLowerCase;
+			if (s == null) {
+				assert simple != null;
+				simpleLowerCase = s = simple.toLowerCase(Locale.ENGLISH);
+			}
+			return s;
+		}
+		if (mode == StringMode.MESSAGE)
+			return "" + toString(e).toLowerCase(Locale.ENGLISH);
+		Object[] string = lowerCaseString;
+		if (string == null)
+			lowerCaseString = string = lowerCaseParts();
+		if (string.length == 0)
+			return "" + toString(e).toLowerCase(Locale.ENGLISH);
+		final StringBuilder b = new StringBuilder();
+		boolean lowerAll = false;
+		for (final Object o : string) {
+			if (o instanceof Expression<?>) {
+				final Object[] values = ((Expression<?>) o).getArray(e);
+				final int start = b.length();
+				if (appendNumber(b, values, mode)) {
+					for (int i = start; i < b.length(); i++) // numbers only consist of ASCII characters, e.g. NaN
+						b.setCharAt(i, Character.toLowerCase(b.charAt(i)));
+				} else {
+					final String s = Classes.toString(values, true, mode);
+					if (s.indexOf(CAPITAL_SIGMA) != -1) { // see lowerCaseParts()
+						lowerAll = true;
+						b.append(s);
+					} else {
+						b.append(s.toLowerCase(Locale.ENGLISH));
+					}
+				}
+			} else {
+				b.append((String) o);
+			}
+		}
+		return "" + (lowerAll ? b.toString().toLowerCase(Locale.ENGLISH) : b.toString());
+	}
+	
+	/**
+	 * The only character whose lower case depends on the surrounding characters (it becomes a final sigma at the end of words).
+	 */
+	private final static char CAPITAL_SIGMA = '\u03A3';
+	
+	/**
+	 * @return {@link #string} with all constant parts in lower case, or an empty array if a constant part cannot be lowered on its own
+	 */
+	private Object[] lowerCaseParts() {
+		final Object[] string = this.string;
+		assert string != null;
+		final Object[] r = new Object[string.length];
+		for (int i = 0; i < string.length; i++) {
+			final Object o = string[i];
+			if (o instanceof Expression<?>) {
+				r[i] = o;
+			} else {
+				final String s = "" + o;
+				if (s.indexOf(CAPITAL_SIGMA) != -1)
+					return new Object[0];
+				r[i] = s.toLowerCase(Locale.ENGLISH);
+			}
+		}
+		return r;
+	}
+	
+	/**
+	 * Appends a single number directly to the builder, which gives the same result as {@link Classes#toString(Object[], boolean, StringMode)} but doesn't create
+	 * intermediate strings. Numbers are by far the most common values in messages and variable names.
+	 * 
+	 * @return Whether the values were a single number and have been appended
+	 */
+	private static boolean appendNumber(final StringBuilder b, final Object[] values, final StringMode mode) {
+		if (values.length != 1 || mode != StringMode.MESSAGE && mode != StringMode.VARIABLE_NAME)
+			return false;
+		final Object o = values[0];
+		if (o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte) {
+			b.append(((Number) o).longValue());
+			return true;
+		}
+		if (o instanceof Double || o instanceof Float) {
+			StringUtils.append(b, ((Number) o).doubleValue(), mode == StringMode.VARIABLE_NAME ? JavaClasses.VARIABLENAME_NUMBERACCURACY : SkriptConfig.numberAccuracy.value());
+			return true;
+		}
+		return false;
+	}
+	
 	/**
 	 * Parses all expressions in the string and returns it.
 	 * Does not parse formatting codes!
@@ -455,7 +567,9 @@ public class VariableString implements Expression<String> {
 			final Object o = string[i];
 			if (o instanceof Expression<?>) {
 				assert mode != StringMode.MESSAGE;
-				b.append(Classes.toString(((Expression<?>) o).getArray(e), true, mode));
+				final Object[] values = ((Expression<?>) o).getArray(e);
+				if (!appendNumber(b, values, mode))
+					b.append(Classes.toString(values, true, mode));
 			} else if (o instanceof ExpressionInfo) {
 				assert mode == StringMode.MESSAGE;
 				final ExpressionInfo info = (ExpressionInfo) o;
@@ -467,7 +581,9 @@ public class VariableString implements Expression<String> {
 					final String style = Utils.getChatStyle(s);
 					b.append(style == null ? "<" + s + ">" : style);
 				} else {
-					b.append(Classes.toString(info.expr.getArray(e), flags, null));
+					final Object[] values = info.expr.getArray(e);
+					if (!appendNumber(b, values, StringMode.MESSAGE))
+						b.append(Classes.toString(values, flags, null));
 				}
 			} else {
 				b.append(o);
@@ -207,6 +207,11 @@ public class ConvertedExpression<F, T> implements Expression<T> {
 		return false;// A loop does not convert the expression to loop
 	}
 	
+	@Override
+	public boolean hasLazyIterator() {
+		return source.hasLazyIterator();
+	}
+	
 	@Override
 	@Nullable
 	public Iterator<T> iterator(final Event e) {
@@ -160,6 +160,8 @@ public abstract class SimpleExpression<T> implements Expression<T> {
 	
 	@Override
 	public final boolean check(final Event e, final Checker<? super T> c, final boolean negated) {
+		if (getAnd() && hasLazyIterator())
+			return check(iterator(e), c, negated, true);
 		return check(get(e), c, negated, getAnd());
 	}
 	
@@ -183,6 +185,22 @@ public abstract class SimpleExpression<T> implements Expression<T> {
 		return invert ^ and;
 	}
 	
+	/**
+	 * Same as {@link #check(Object[], Checker, boolean, boolean)}, but stops iterating as soon as the result is known.
+	 */
+	public final static <T> boolean check(final @Nullable Iterator<? extends T> iter, final Checker<? super T> c, final boolean invert, final boolean and) {
+		if (iter == null || !iter.hasNext())
+			return false;
+		while (iter.hasNext()) {
+			final boolean b = c.check(iter.next());
+			if (and && !b)
+				return invert ^ false;
+			if (!and && b)
+				return invert ^ true;
+		}
+		return invert ^ and;
+	}
+	
 	/**
 	 * Converts this expression to another type. Unless the expression is special, the default implementation is sufficient.
 	 * <p>
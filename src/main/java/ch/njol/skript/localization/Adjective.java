@@ -34,7 +34,7 @@ public class Adjective extends Message {
 	private final static int DEFINITE_ARTICLE = -100;
 	private final static String DEFINITE_ARTICLE_TOKEN = "+";
 	
-	private final HashMap<Integer, String> genders = new HashMap<>();
+	private volatile HashMap<Integer, String> genders = new HashMap<>();
 	@Nullable
 	String def;
 	
@@ -43,34 +43,38 @@ public class Adjective extends Message {
 	}
 	
 	@Override
-	protected void onValueChange() {
-		genders.clear();
-		final String v = getValue();
-		def = v;
-		if (v == null)
-			return;
-		final int s = v.indexOf('@'), e = v.lastIndexOf('@');
-		if (s == -1)
-			return;
-		if (s == e) {
-			Skript.error("Invalid use of '@' in the adjective '" + key + "' in the " + Language.getName() + " language file: " + v);
-			return;
-		}
-		def = v.substring(0, s) + v.substring(e + 1);
-		int c = s;
-		do {
-			final int c2 = v.indexOf('@', c + 1);
-			final int d = v.indexOf(':', c + 1);
-			if (d == -1 || d > c2) {
-				Skript.error("Missing colon (:) to separate the gender in the adjective '" + key + "' in the " + Language.getName() + " language file at index " + c + ": " + v);
+	protected void onValueChange(final @Nullable String v) {
+		// the map is only published once complete as other threads may read it concurrently
+		final HashMap<Integer, String> genders = new HashMap<>();
+		try {
+			def = v;
+			if (v == null)
+				return;
+			final int s = v.indexOf('@'), e = v.lastIndexOf('@');
+			if (s == -1)
+				return;
+			if (s == e) {
+				Skript.error("Invalid use of '@' in the adjective '" + key + "' in the " + Language.getName() + " language file: " + v);
 				return;
 			}
-			final String gender = v.substring(c + 1, d);
-			final int g = gender.equals(DEFINITE_ARTICLE_TOKEN) ? DEFINITE_ARTICLE : Noun.getGender(gender, key);
-			if (!genders.containsKey(g))
-				genders.put(g, v.substring(0, s) + v.substring(d + 1, c2) + v.substring(e + 1));
-			c = c2;
-		} while (c < e);
+			def = v.substring(0, s) + v.substring(e + 1);
+			int c = s;
+			do {
+				final int c2 = v.indexOf('@', c + 1);
+				final int d = v.indexOf(':', c + 1);
+				if (d == -1 || d > c2) {
+					Skript.error("Missing colon (:) to separate the gender in the adjective '" + key + "' in the " + Language.getName() + " language file at index " + c + ": " + v);
+					return;
+				}
+				final String gender = v.substring(c + 1, d);
+				final int g = gender.equals(DEFINITE_ARTICLE_TOKEN) ? DEFINITE_ARTICLE : Noun.getGender(gender, key);
+				if (!genders.containsKey(g))
+					genders.put(g, v.substring(0, s) + v.substring(d + 1, c2) + v.substring(e + 1));
+				c = c2;
+			} while (c < e);
+		} finally {
+			this.genders = genders;
+		}
 	}
 	
 	@Override
@@ -83,6 +87,7 @@ public class Adjective extends Message {
 	
 	public String toString(int gender, final int flags) {
 		validate();
+		final HashMap<Integer, String> genders = this.genders;
 		if ((flags & Language.F_DEFINITE_ARTICLE) != 0 && genders.containsKey(DEFINITE_ARTICLE))
 			gender = DEFINITE_ARTICLE;
 		else if ((flags & Language.F_PLURAL) != 0)
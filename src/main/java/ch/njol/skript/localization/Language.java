@@ -25,11 +25,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -71,20 +73,52 @@ public class Language {
 	static HashMap<String, String> localized = null;
 	static boolean useLocal = false;
 	
+	/**
+	 * Immutable copies of {@link #english} and of {@link #localized} with english fallbacks. These are rebuilt whenever a language file is loaded.
+	 */
+	private static Map<String, String> englishSnapshot = Collections.emptyMap();
+	@Nullable
+	private static Map<String, String> localizedSnapshot = null;
+	/**
+	 * The snapshot of the language currently in use. It is only ever replaced, never modified, thus {@link Message}s can compare it by identity to find out whether their
+	 * value is outdated and read from it without any locking.
+	 */
+	private static volatile Map<String, String> current = englishSnapshot;
+	
 	private static HashMap<Plugin, Version> langVersion = new HashMap<>();
 	
 	public static String getName() {
 		return useLocal ? name : "english";
 	}
 	
+	/**
+	 * @return An immutable map of all messages of the current language, which is replaced as a whole when the language changes
+	 */
+	static Map<String, String> getSnapshot() {
+		return current;
+	}
+	
+	static void updateSnapshots() {
+		englishSnapshot = Collections.unmodifiableMap(new HashMap<>(english));
+		final HashMap<String, String> loc = localized;
+		if (loc != null) {
+			final HashMap<String, String> s = new HashMap<>(english);
+			s.putAll(loc);
+			localizedSnapshot = Collections.unmodifiableMap(s);
+		} else {
+			localizedSnapshot = null;
+		}
+		updateCurrent();
+	}
+	
+	private static void updateCurrent() {
+		final Map<String, String> loc = localizedSnapshot;
+		current = useLocal && loc != null ? loc : englishSnapshot;
+	}
+	
 	@Nullable
 	private final static String get_i(final String key) {
-		if (useLocal && localized != null) {
-			final String s = localized.get(key);
-			if (s != null)
-				return s;
-		}
-		final String s = english.get(key);
+		final String s = current.get(key);
 		if (s == null && Skript.testing())
 			missingEntryError(key);
 		return s;
@@ -198,6 +232,7 @@ public class Language {
 		langVersion.put(addon.plugin, v == null ? Skript.getVersion() : new Version(v));
 		en.remove("version");
 		english.putAll(en);
+		updateSnapshots();
 		for (final LanguageChangeListener l : listeners)
 			l.onLanguageChange();
 	}
@@ -215,9 +250,11 @@ public class Language {
 		if (!exists) {
 			localized = null;
 			Language.name = "english";
+			updateSnapshots();
 			return false;
 		}
 		Language.name = name;
+		updateSnapshots();
 		validateLocalized();
 		if (useLocal) {
 			for (final LanguageChangeListener l : listeners)
@@ -331,8 +368,10 @@ public class Language {
 		if (!english.isEmpty()) {
 			if (localized != null && useLocal) {
 				useLocal = false;
+				updateCurrent();
 				l.onLanguageChange();
 				useLocal = true;
+				updateCurrent();
 			}
 			l.onLanguageChange();
 		}
@@ -359,6 +398,7 @@ public class Language {
 		if (localized == null)
 			return false;
 		useLocal = b;
+		updateCurrent();
 		for (final LanguageChangeListener l : listeners) {
 			try {
 				l.onLanguageChange();
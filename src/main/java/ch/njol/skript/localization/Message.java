@@ -22,6 +22,7 @@ package ch.njol.skript.localization;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Locale;
+import java.util.Map;
 
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -42,9 +43,6 @@ public class Message {
 			@Override
 			public void onLanguageChange() {
 				for (final Message m : messages) {
-					synchronized (m) {
-						m.revalidate = true;
-					}
 					if (firstChange && Skript.testing()) {
 						if (!Language.english.containsKey(m.key))
 							Language.missingEntryError(m.key);
@@ -58,7 +56,12 @@ public class Message {
 	public final String key;
 	@Nullable
 	private String value;
-	boolean revalidate = true;
+	/**
+	 * The language snapshot {@link #value} was taken from, see {@link Language#getSnapshot()}. Written after the value, so that a thread seeing an up to date snapshot here
+	 * also sees the matching value.
+	 */
+	@Nullable
+	private volatile Map<String, String> language = null;
 	
 	public Message(final String key) {
 		this.key = "" + key.toLowerCase(Locale.ENGLISH);
@@ -100,20 +103,31 @@ public class Message {
 	}
 	
 	/**
-	 * Checks whether this message's value has changed and calls {@link #onValueChange()} if neccessary.
+	 * Checks whether this message's value has changed and calls {@link #onValueChange(String)} if neccessary.
+	 * <p>
+	 * This method does not lock: if multiple threads find the value outdated at the same time, all of them compute the same value from the same immutable language snapshot.
 	 */
-	protected synchronized void validate() {
-		if (revalidate) {
-			revalidate = false;
-			value = Language.get_(key);
-			onValueChange();
-		}
+	protected void validate() {
+		final Map<String, String> l = Language.getSnapshot();
+		if (language == l)
+			return;
+		final String v = l.get(key);
+		if (v == null && Skript.testing())
+			Language.missingEntryError(key);
+		value = v;
+		onValueChange(v);
+		language = l;
 	}
 	
 	/**
 	 * Called when this Message's value changes. This is not neccessarily called for every language change, but only when the value is actually accessed and the language has
 	 * changed since the last call of this method.
+	 * <p>
+	 * As this may be called by several threads at once, implementations should compute their state into local variables and only assign it to fields at the end.
+	 * Implementations must use the given value instead of {@link #getValue()}, as the latter would validate this message again before it is up to date.
+	 * 
+	 * @param value The new value of this message, or null if it doesn't exist
 	 */
-	protected void onValueChange() {}
+	protected void onValueChange(final @Nullable String value) {}
 	
 }
@@ -53,14 +53,15 @@ public class Noun extends Message {
 	}
 	
 	@Override
-	protected void onValueChange() {
-		String value = getValue();
+	protected void onValueChange(final @Nullable String v) {
+		String value = v;
 		if (value == null) {
 			plural = singular = key;
 			gender = 0;
 			return;
 		}
 		final int g = value.lastIndexOf('@');
+		final int gender;
 		if (g != -1) {
 			gender = getGender("" + value.substring(g + 1).trim(), key);
 			value = "" + value.substring(0, g).trim();
@@ -68,10 +69,11 @@ public class Noun extends Message {
 			gender = 0;
 		}
 		final NonNullPair<String, String> p = Noun.getPlural(value);
+		if (gender == PLURAL && !Objects.equals(p.getFirst(), p.getSecond()))
+			Skript.warning("Noun '" + key + "' is of gender 'plural', but has different singular and plural values.");
 		singular = p.getFirst();
 		plural = p.getSecond();
-		if (gender == PLURAL && !Objects.equals(singular, plural))
-			Skript.warning("Noun '" + key + "' is of gender 'plural', but has different singular and plural values.");
+		this.gender = gender;
 	}
 	
 	@Override
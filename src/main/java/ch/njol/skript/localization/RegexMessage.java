@@ -93,11 +93,11 @@ public class RegexMessage extends Message {
 	}
 	
 	@Override
-	protected void onValueChange() {
+	protected void onValueChange(final @Nullable String value) {
 		try {
-			pattern = Pattern.compile(prefix + getValue() + suffix, flags);
+			pattern = Pattern.compile(prefix + value + suffix, flags);
 		} catch (final PatternSyntaxException e) {
-			Skript.error("Invalid Regex pattern '" + getValue() + "' found at '" + key + "' in the " + Language.getName() + " language file: " + e.getLocalizedMessage());
+			Skript.error("Invalid Regex pattern '" + value + "' found at '" + key + "' in the " + Language.getName() + " language file: " + e.getLocalizedMessage());
 		}
 	}
 	
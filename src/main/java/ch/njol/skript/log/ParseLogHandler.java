@@ -125,6 +125,13 @@ public class ParseLogHandler extends LogHandler {
 		return error != null;
 	}
 	
+	/**
+	 * @return Whether any messages other than errors have been logged and not cleared yet
+	 */
+	public boolean hasLog() {
+		return !log.isEmpty();
+	}
+	
 	@Nullable
 	public LogEntry getError() {
 		return error;
@@ -79,6 +79,13 @@ public abstract class Classes {
 	private final static HashMap<Class<?>, ClassInfo<?>> superClassInfos = new HashMap<Class<?>, ClassInfo<?>>();
 	private final static HashMap<String, ClassInfo<?>> classInfosByCodeName = new HashMap<String, ClassInfo<?>>();
 	
+	/**
+	 * Caches which class info is used to convert instances of a class to strings, see {@link #getToStringInfo(Class)}. Replaced whenever the class infos change.
+	 * The values are arrays of length 0 (no class info with a parser) or 1.
+	 */
+	@Nullable
+	private static ClassValue<ClassInfo<?>[]> toStringInfos = null;
+	
 	/**
 	 * @param info info about the class to register
 	 */
@@ -200,6 +207,17 @@ public abstract class Classes {
 		}
 		
 		Classes.classInfos = classInfos.toArray(new ClassInfo[classInfos.size()]);
+		toStringInfos = new ClassValue<ClassInfo<?>[]>() {
+			@Override
+			protected ClassInfo<?>[] computeValue(final @Nullable Class<?> c) {
+				assert c != null;
+				for (final ClassInfo<?> ci : getClassInfos()) {
+					if (ci.getParser() != null && ci.getC().isAssignableFrom(c))
+						return new ClassInfo<?>[] {ci};
+				}
+				return new ClassInfo<?>[0];
+			}
+		};
 		
 		// check for circular dependencies
 		if (!tempClassInfos.isEmpty()) {
@@ -436,6 +454,9 @@ public abstract class Classes {
 	 * Instead of repeatedly calling this with the same class argument, you should get a parser with {@link #getParser(Class)} and use it for parsing.
 	 * <p>
 	 * Can log an error if it returned null.
+	 * <p>
+	 * Results of parsing {@link ParseContext#COMMAND command} arguments are {@link ParseCache cached} if the desired type allows it, see
+	 * {@link ParseCache#isCacheable(Class)}.
 	 * 
 	 * @param s The string to parse
 	 * @param c The desired type. The returned value will be of this type or a subclass if it.
@@ -444,10 +465,18 @@ public abstract class Classes {
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	@Nullable
 	public static <T> T parse(final String s, final Class<T> c, final ParseContext context) {
+		final boolean cache = context == ParseContext.COMMAND && ParseCache.isCacheable(c);
+		if (cache) {
+			final Object cached = ParseCache.get(s, c, context);
+			if (cached != null)
+				return (T) cached;
+		}
 		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
 			T t = parseSimple(s, c, context);
 			if (t != null) {
+				if (cache && !log.hasLog())
+					ParseCache.put(s, c, context, t);
 				log.printLog();
 				return t;
 			}
@@ -460,6 +489,8 @@ public abstract class Classes {
 					if (o != null) {
 						t = (T) ((Converter) conv.converter).convert(o);
 						if (t != null) {
+							if (cache && !log.hasLog())
+								ParseCache.put(s, c, context, t);
 							log.printLog();
 							return t;
 						}
@@ -593,19 +624,37 @@ public abstract class Classes {
 			}
 			return "[" + b.toString() + "]";
 		}
-		for (final ClassInfo<?> ci : getClassInfos()) {
+		final ClassInfo<?> ci = getToStringInfo(o.getClass());
+		if (ci != null) {
 			final Parser<?> parser = ci.getParser();
-			if (parser != null && ci.getC().isInstance(o)) {
-				@SuppressWarnings("unchecked")
-				final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
-						: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
-								: ((Parser<T>) parser).toString(o, mode);
-				return s;
-			}
+			assert parser != null;
+			@SuppressWarnings("unchecked")
+			final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
+					: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
+							: ((Parser<T>) parser).toString(o, mode);
+			return s;
 		}
 		return mode == StringMode.VARIABLE_NAME ? "object:" + o : "" + o;
 	}
 	
+	/**
+	 * @param c
+	 * @return The first class info with a parser that is a superclass of the given class, or null if there is none
+	 */
+	@Nullable
+	private final static ClassInfo<?> getToStringInfo(final Class<?> c) {
+		final ClassValue<ClassInfo<?>[]> infos = toStringInfos;
+		if (infos != null) {
+			final ClassInfo<?>[] ci = infos.get(c);
+			return ci.length == 0 ? null : ci[0];
+		}
+		for (final ClassInfo<?> ci : getClassInfos()) {
+			if (ci.getParser() != null && ci.getC().isAssignableFrom(c))
+				return ci;
+		}
+		return null;
+	}
+	
 	public final static String toString(final Object[] os, final int flags, final boolean and) {
 		return toString(os, and, null, StringMode.MESSAGE, flags);
 	}
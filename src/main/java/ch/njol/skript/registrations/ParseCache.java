@@ -0,0 +1,178 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.registrations;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.potion.PotionEffectType;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.aliases.Aliases;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.lang.ParseContext;
+import ch.njol.skript.localization.Language;
+import ch.njol.skript.localization.LanguageChangeListener;
+import ch.njol.skript.util.EnchantmentType;
+import ch.njol.skript.util.Timespan;
+
+/**
+ * Remembers the results of parsing text at runtime, e.g. command arguments and <code>"..." parsed as &lt;type&gt;</code>, as parsing items and some other types is
+ * expensive and the same few texts are usually parsed over and over again.
+ * <p>
+ * Only values of types whose parsing doesn't depend on the state of the server (like players or worlds do) are cached. Mutable values are copied both when
+ * they are cached and when they are returned, so callers may freely modify them.
+ * <p>
+ * The cache is cleared when the language or the {@link Aliases aliases} change.
+ */
+public final class ParseCache {
+	
+	private ParseCache() {}
+	
+	/**
+	 * Maximum number of cached texts. Least recently used entries are removed first.
+	 */
+	private final static int MAX_SIZE = 1000;
+	
+	/**
+	 * The types {@link #copy(Object)} accepts
+	 */
+	private final static Class<?>[] cachedTypes = {ItemType.class, ItemStack.class, String.class, Number.class, Boolean.class, Enum.class,
+			Timespan.class, EnchantmentType.class, Enchantment.class, PotionEffectType.class};
+	
+	private final static class Key {
+		
+		private final String text;
+		private final Object type;
+		private final ParseContext context;
+		
+		Key(final String text, final Object type, final ParseContext context) {
+			this.text = text;
+			this.type = type;
+			this.context = context;
+		}
+		
+		@Override
+		public int hashCode() {
+			return (text.hashCode() * 31 + type.hashCode()) * 31 + context.hashCode();
+		}
+		
+		@Override
+		public boolean equals(final @Nullable Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			final Key other = (Key) obj;
+			return text.equals(other.text) && type.equals(other.type) && context == other.context;
+		}
+		
+	}
+	
+	@SuppressWarnings("serial")
+	private final static Map<Key, Object> cache = new LinkedHashMap<Key, Object>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(final @Nullable Map.Entry<Key, Object> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+	
+	static {
+		Language.addListener(new LanguageChangeListener() {
+			@Override
+			public void onLanguageChange() {
+				clear();
+			}
+		});
+	}
+	
+	/**
+	 * @param text The parsed text
+	 * @param type What the text was parsed as, e.g. a class or a {@link ch.njol.skript.classes.ClassInfo ClassInfo}. Must implement equals and hashCode if the
+	 *            same type can be represented by different objects.
+	 * @param context
+	 * @return A copy of the value the text was last parsed to, or null if it is not cached
+	 */
+	@Nullable
+	public static Object get(final String text, final Object type, final ParseContext context) {
+		final Object o;
+		synchronized (cache) {
+			o = cache.get(new Key(text, type, context));
+		}
+		return o == null ? null : copy(o);
+	}
+	
+	/**
+	 * Caches the result of parsing a text. Does nothing if values of the value's type cannot be cached.
+	 * 
+	 * @param text The parsed text
+	 * @param type What the text was parsed as, see {@link #get(String, Object, ParseContext)}
+	 * @param context
+	 * @param value The successfully parsed value
+	 */
+	public static void put(final String text, final Object type, final ParseContext context, final Object value) {
+		final Object copy = copy(value);
+		if (copy == null)
+			return;
+		synchronized (cache) {
+			cache.put(new Key(text, type, context), copy);
+		}
+	}
+	
+	/**
+	 * Checks whether the results of parsing text as the given class may be cached. This is only the case if the class itself is one of the cached types:
+	 * when parsing e.g. {@link Object}, the parser that wins depends on which types are registered and on the state of the server.
+	 * 
+	 * @param c The class the text is parsed as
+	 * @return Whether {@link #put(String, Object, ParseContext, Object)} may be used for results of parsing text as the given class
+	 */
+	static boolean isCacheable(final Class<?> c) {
+		for (final Class<?> t : cachedTypes) {
+			if (t.isAssignableFrom(c))
+				return true;
+		}
+		return false;
+	}
+	
+	public static void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+	
+	/**
+	 * @param o A parsed value
+	 * @return The value itself if it is immutable, a copy of it if it is mutable, or null if values of its type must not be cached.
+	 */
+	@Nullable
+	private static Object copy(final Object o) {
+		if (o instanceof ItemType)
+			return ((ItemType) o).clone();
+		if (o instanceof ItemStack)
+			return ((ItemStack) o).clone();
+		if (o instanceof String || o instanceof Number || o instanceof Boolean || o instanceof Enum
+				|| o instanceof Timespan || o instanceof EnchantmentType || o instanceof Enchantment || o instanceof PotionEffectType)
+			return o;
+		return null;
+	}
+	
+}
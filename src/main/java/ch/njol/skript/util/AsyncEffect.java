@@ -19,23 +19,19 @@
  */
 package ch.njol.skript.util;
 
-import ch.njol.skript.Skript;
 import ch.njol.skript.effects.Delay;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.timings.SkriptTimings;
 
-import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
 /**
  * Effects that extend this class are ran asynchronously. Next trigger item will be ran
- * in main server thread, as if there had been a delay before.
+ * in main server thread, as if there had been a delay before. See {@link AsyncExecutor}
+ * for how many effects may run at once.
  * <p>
  * Majority of Skript and Minecraft APIs are not thread-safe, so be careful.
  */
@@ -47,32 +43,31 @@ public abstract class AsyncEffect extends Effect {
 		debug(e, true);
 		TriggerItem next = getNext();
     	
-		if (next != null) {
+		if (next != null)
 	        Delay.addDelayedEvent(e);
-	        Bukkit.getScheduler().runTaskAsynchronously(Skript.getInstance(), new Runnable() {
-	            @SuppressWarnings("synthetic-access")
-				@Override
-	            public void run() {
-	                execute(e); // Execute this effect
-	                Bukkit.getScheduler().runTask(Skript.getInstance(), new Runnable() {
-	                    @Override
-	                    public void run() { // Walk to next item synchronously
-	    					Object timing = null;
-	    					if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
-	    						Trigger trigger = getTrigger();
-	    						if (trigger != null) {
-	    							timing = SkriptTimings.start(trigger.getDebugLabel());
-	    						}
-	    					}
-	    					
-	    					TriggerItem.walk(next, e);
-	    					
-	    					SkriptTimings.stop(timing); // Stop timing if it was even started
-	                    }
-	                });
-	            }
-	        });
-		}
+        // The effect is executed even if it is the last item of its trigger, only the continuation is skipped then
+        AsyncExecutor.execute(new Runnable() {
+            @SuppressWarnings("synthetic-access")
+			@Override
+            public void run() {
+                execute(e); // Execute this effect
+            }
+        }, next == null ? null : new Runnable() {
+                    @Override
+                    public void run() { // Walk to next item synchronously
+    					Object timing = null;
+    					if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
+    						Trigger trigger = getTrigger();
+    						if (trigger != null) {
+    							timing = SkriptTimings.start(trigger.getDebugLabel());
+    						}
+    					}
+    					
+    					TriggerItem.walk(next, e);
+    					
+    					SkriptTimings.stop(timing); // Stop timing if it was even started
+                    }
+        });
         return null;
     }
 }
@@ -0,0 +1,224 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.util.Closeable;
+
+/**
+ * Runs {@link AsyncEffect}s on Skript's own threads and their continuations back on the main thread.
+ * <p>
+ * At most {@link SkriptConfig#asyncEffectThreads} effects run at the same time and at most {@link #QUEUE_SIZE} more wait for a thread. Effects started while
+ * the queue is full are held back and handed to the threads once the queue has room again, so that they never run on the thread that started them, which is
+ * usually the main thread. At most {@link #OVERFLOW_SIZE} effects are held back: beyond that, other threads wait until there is room again, while effects
+ * started on the main thread are skipped and reported, as the main thread must not wait for the effects that are possibly waiting for it.
+ * <p>
+ * Continuations are collected and run in one batch per tick, spending at most {@link SkriptConfig#asyncEffectSyncTimePerTick} milliseconds on them.
+ * Continuations that don't fit into a tick are run in the next one.
+ */
+public abstract class AsyncExecutor {
+	private AsyncExecutor() {}
+	
+	private final static int QUEUE_SIZE = 1000;
+	private final static int OVERFLOW_SIZE = 10000;
+	
+	@Nullable
+	private static ThreadPoolExecutor executor = null;
+	private static int taskID = -1;
+	private static boolean closeRegistered = false;
+	
+	private final static Queue<Runnable> continuations = new ConcurrentLinkedQueue<>();
+	
+	/**
+	 * Effects that didn't fit into the executor's queue, in the order they were started
+	 */
+	private final static BlockingQueue<Runnable> overflow = new LinkedBlockingQueue<>(OVERFLOW_SIZE);
+	
+	/**
+	 * Number of effects skipped since the last warning because {@link #overflow} was full
+	 */
+	private final static AtomicInteger skipped = new AtomicInteger();
+	private static long lastSkippedWarning = 0;
+	
+	private final static RejectedExecutionHandler toOverflow = new RejectedExecutionHandler() {
+		@Override
+		public void rejectedExecution(final Runnable r, final ThreadPoolExecutor e) {
+			if (!e.isShutdown())
+				holdBack(r);
+		}
+	};
+	
+	private final static Runnable drainer = new Runnable() {
+		@Override
+		public void run() {
+			final ThreadPoolExecutor ex = executor;
+			if (ex != null) {
+				Runnable r;
+				while (ex.getQueue().remainingCapacity() > 0 && (r = overflow.poll()) != null)
+					ex.execute(r);
+			}
+			if (skipped.get() > 0 && System.currentTimeMillis() - lastSkippedWarning >= 10000) {
+				lastSkippedWarning = System.currentTimeMillis();
+				Skript.warning(skipped.getAndSet(0) + " async effects were skipped as more than " + (QUEUE_SIZE + OVERFLOW_SIZE) + " were already waiting to run."
+						+ " Consider increasing 'async effect threads' in the config or starting fewer async effects.");
+			}
+			final long deadline = System.nanoTime() + SkriptConfig.asyncEffectSyncTimePerTick.value() * 1000000L;
+			Runnable r;
+			while ((r = continuations.poll()) != null) {
+				try {
+					r.run();
+				} catch (final Exception e) {
+					Skript.exception(e, "Exception while continuing a trigger after an async effect");
+				}
+				if (System.nanoTime() >= deadline)
+					return;
+			}
+		}
+	};
+	
+	/**
+	 * Runs code asynchronously and afterwards other code on the main thread.
+	 * 
+	 * @param async The code to run asynchronously
+	 * @param sync The code to run on the main thread after <tt>async</tt> has completed, or null to not run anything afterwards
+	 */
+	public static void execute(final Runnable async, final @Nullable Runnable sync) {
+		final Runnable r = new Runnable() {
+			@Override
+			public void run() {
+				try {
+					async.run();
+				} catch (final Exception e) {
+					Skript.exception(e, "Exception in an async effect");
+					return;
+				}
+				if (sync != null)
+					continuations.add(sync);
+			}
+		};
+		final ThreadPoolExecutor e = getExecutor();
+		if (overflow.isEmpty())
+			e.execute(r);
+		else // don't overtake effects that are already waiting
+			holdBack(r);
+	}
+	
+	/**
+	 * Adds an effect to {@link #overflow}. If that is full, waits for room unless called on the main thread, which would otherwise wait for itself as only
+	 * the main thread drains the overflow.
+	 */
+	private static void holdBack(final Runnable r) {
+		if (overflow.offer(r))
+			return;
+		if (Bukkit.isPrimaryThread()) {
+			skipped.incrementAndGet();
+			return;
+		}
+		try {
+			overflow.put(r);
+		} catch (final InterruptedException e) {
+			skipped.incrementAndGet();
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static synchronized ThreadPoolExecutor getExecutor() {
+		final int threads = Math.max(1, SkriptConfig.asyncEffectThreads.value());
+		ThreadPoolExecutor e = executor;
+		if (e == null) {
+			e = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), createThreadFactory(),
+					toOverflow);
+			e.allowCoreThreadTimeOut(true);
+			executor = e;
+			taskID = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), drainer, 1, 1);
+			if (!closeRegistered) {
+				Skript.closeOnDisable(new Closeable() {
+					@Override
+					public void close() {
+						shutdown();
+					}
+				});
+				closeRegistered = true;
+			}
+		} else if (e.getMaximumPoolSize() != threads) { // config was reloaded
+			if (threads > e.getMaximumPoolSize()) {
+				e.setMaximumPoolSize(threads);
+				e.setCorePoolSize(threads);
+			} else {
+				e.setCorePoolSize(threads);
+				e.setMaximumPoolSize(threads);
+			}
+		}
+		return e;
+	}
+	
+	private static ThreadFactory createThreadFactory() {
+		if (SkriptConfig.asyncEffectVirtualThreads.value()) {
+			// Thread.ofVirtual().factory(), looked up by reflection as Skript is compiled against Java 8
+			try {
+				final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+				return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+			} catch (final ReflectiveOperationException e) {
+				Skript.warning("Virtual threads are not supported by this version of Java. Async effects will use normal threads instead.");
+			}
+		}
+		return new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread t = new Thread(r, "Skript async effect thread " + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		};
+	}
+	
+	/**
+	 * Stops all threads and discards all pending continuations. Called when Skript is disabled.
+	 */
+	static synchronized void shutdown() {
+		final ThreadPoolExecutor e = executor;
+		if (e != null)
+			e.shutdown();
+		executor = null;
+		if (taskID != -1)
+			Bukkit.getScheduler().cancelTask(taskID);
+		taskID = -1;
+		continuations.clear();
+		overflow.clear();
+	}
+	
+}
@@ -0,0 +1,143 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Iterates over the blocks of an area chunk by chunk, so that every chunk is only looked up once and its blocks are visited together.
+ * <p>
+ * The area is made of vertical columns of blocks: subclasses define the range of y coordinates of each column in {@link #setColumn(int, int)}.
+ */
+public abstract class BlockAreaIterator implements Iterator<Block> {
+	
+	protected final World world;
+	private final int minX, maxX, minZ, maxZ;
+	
+	private int chunkX, chunkZ;
+	@Nullable
+	private Chunk chunk = null;
+	private int x, z;
+	private int y = 0;
+	
+	/**
+	 * The lowest and highest y coordinates of the current column, set by {@link #setColumn(int, int)}
+	 */
+	protected int columnMinY = 0, columnMaxY = -1;
+	
+	private boolean done;
+	@Nullable
+	private Block next = null;
+	
+	/**
+	 * @param world
+	 * @param minX The lowest x coordinate of the area (inclusive)
+	 * @param maxX The highest x coordinate of the area (inclusive)
+	 * @param minZ The lowest z coordinate of the area (inclusive)
+	 * @param maxZ The highest z coordinate of the area (inclusive)
+	 */
+	protected BlockAreaIterator(final World world, final int minX, final int maxX, final int minZ, final int maxZ) {
+		this.world = world;
+		this.minX = minX;
+		this.maxX = maxX;
+		this.minZ = minZ;
+		this.maxZ = maxZ;
+		chunkX = minX >> 4;
+		chunkZ = minZ >> 4;
+		x = minX;
+		z = minZ - 1; // nextColumn() increases z by one immediately
+		done = minX > maxX || minZ > maxZ;
+	}
+	
+	/**
+	 * Sets {@link #columnMinY} and {@link #columnMaxY} to the y coordinates of the blocks of the area in the given column.
+	 * 
+	 * @param x
+	 * @param z
+	 * @return Whether the column contains any blocks of the area
+	 */
+	protected abstract boolean setColumn(int x, int z);
+	
+	private boolean nextColumn() {
+		while (true) {
+			z++;
+			if (z > Math.min(maxZ, (chunkZ << 4) + 15)) {
+				x++;
+				if (x > Math.min(maxX, (chunkX << 4) + 15)) {
+					chunkZ++;
+					if (chunkZ > maxZ >> 4) {
+						chunkZ = minZ >> 4;
+						chunkX++;
+						if (chunkX > maxX >> 4)
+							return false;
+					}
+					chunk = null;
+					x = Math.max(minX, chunkX << 4);
+				}
+				z = Math.max(minZ, chunkZ << 4);
+			}
+			if (setColumn(x, z) && columnMinY <= columnMaxY) {
+				y = columnMinY;
+				return true;
+			}
+		}
+	}
+	
+	@Override
+	public boolean hasNext() {
+		if (next != null)
+			return true;
+		if (done)
+			return false;
+		if (y > columnMaxY) {
+			if (!nextColumn()) {
+				done = true;
+				return false;
+			}
+		}
+		Chunk c = chunk;
+		if (c == null)
+			chunk = c = world.getChunkAt(chunkX, chunkZ);
+		next = c.getBlock(x & 15, y++, z & 15);
+		return true;
+	}
+	
+	@Override
+	public Block next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		final Block b = next;
+		assert b != null;
+		next = null;
+		return b;
+	}
+	
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+	
+}
@@ -0,0 +1,217 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.aliases.ItemData;
+import ch.njol.skript.aliases.ItemType;
+
+/**
+ * Changes large amounts of blocks over several ticks, spending at most {@link SkriptConfig#blockChangeTimePerTick} milliseconds per tick on it.
+ * <p>
+ * Blocks are changed chunk by chunk: {@link BlockAreaIterator}s are consumed lazily as they already visit blocks in this order, other blocks are sorted by chunk
+ * first.
+ */
+public abstract class BlockChangeQueue {
+	private BlockChangeQueue() {}
+	
+	/**
+	 * A pending change of many blocks.
+	 */
+	public final static class Job {
+		
+		private final Iterator<? extends Block> blocks;
+		@Nullable
+		private final ItemType type;
+		private final boolean applyPhysics;
+		private final int total;
+		@Nullable
+		private final Runnable onDone;
+		
+		private int changed = 0;
+		private long lastReport = System.nanoTime();
+		
+		Job(final Iterator<? extends Block> blocks, final int total, final @Nullable ItemType type, final @Nullable Runnable onDone) {
+			this.blocks = blocks;
+			this.total = total;
+			this.type = type;
+			this.applyPhysics = type == null || needsPhysics(type);
+			this.onDone = onDone;
+		}
+		
+		/**
+		 * @return Whether this job is done
+		 */
+		@SuppressWarnings("deprecation")
+		boolean run(final long deadline) {
+			final ItemType type = this.type;
+			while (blocks.hasNext()) {
+				final Block b = blocks.next();
+				final boolean physics = applyPhysics || needsPhysics(b.getTypeId());
+				if (type == null)
+					b.setTypeId(0, physics);
+				else
+					type.setBlock(b, physics);
+				changed++;
+				if ((changed & 0x3F) == 0 && System.nanoTime() >= deadline) {
+					report(false);
+					return false;
+				}
+			}
+			report(true);
+			return true;
+		}
+		
+		private void report(final boolean done) {
+			if (!Skript.logHigh())
+				return;
+			final long now = System.nanoTime();
+			if (!done && now - lastReport < 1000000000L)
+				return;
+			lastReport = now;
+			if (done)
+				Skript.info("Changed " + changed + " blocks over time");
+			else
+				Skript.info("Changing blocks over time: " + changed + (total < 0 ? "" : " of " + total + " (" + changed * 100 / Math.max(total, 1) + "%)") + " done");
+		}
+		
+		/**
+		 * @return The number of blocks changed so far
+		 */
+		public int getChanged() {
+			return changed;
+		}
+		
+		/**
+		 * @return The total number of blocks to change, or -1 if unknown
+		 */
+		public int getTotal() {
+			return total;
+		}
+		
+	}
+	
+	/**
+	 * Whether a block id is an inert block, i.e. a full opaque block that neither falls down, nor needs support, nor reacts to or emits redstone power, nor
+	 * changes the blocks around it when placed. Blocks that react to redstone like pistons, dispensers, droppers, note blocks, TNT and redstone lamps are not
+	 * inert, and neither are transparent blocks like glass, as they don't conduct redstone power.
+	 */
+	private final static boolean[] inert = new boolean[Skript.MAXBLOCKID + 1];
+	static {
+		final int[] ids = {1, 2, 3, 4, 5, 7, 14, 15, 16, 17, 21, 22, 24, 35, 41, 42, 43, 45, 47, 48, 49, 56, 57, 58, 80, 82, 87, 98, 103, 110, 112, 121, 125,
+				129, 133, 153, 155, 159, 162, 168, 170, 172, 173, 174, 179, 181, 201, 202, 204, 206, 214, 215, 216, 251};
+		for (final int id : ids)
+			inert[id] = true;
+	}
+	
+	/**
+	 * Physics can be skipped safely when an inert block is replaced with another inert block: neither of them needs support, takes it away from other blocks
+	 * or changes how redstone around them is powered. Everything else is changed with physics.
+	 * 
+	 * @param id The id of either the placed or the replaced block
+	 */
+	final static boolean needsPhysics(final int id) {
+		return id < 0 || id > Skript.MAXBLOCKID || !inert[id];
+	}
+	
+	final static boolean needsPhysics(final ItemType type) {
+		for (final ItemData d : type.getTypes()) {
+			if (d.getId() >= 0 && needsPhysics(d.getId()))
+				return true;
+		}
+		return false;
+	}
+	
+	private final static ArrayDeque<Job> jobs = new ArrayDeque<>();
+	private static int taskID = -1;
+	
+	private final static Runnable task = new Runnable() {
+		@Override
+		public void run() {
+			final long deadline = System.nanoTime() + SkriptConfig.blockChangeTimePerTick.value() * 1000000L;
+			Job j;
+			while ((j = jobs.peek()) != null) {
+				try {
+					if (!j.run(deadline))
+						return;
+				} catch (final Exception e) {
+					// drop the job, otherwise it would fail again every tick
+					jobs.poll();
+					Skript.exception(e, "An error occurred while changing blocks over time. " + j.changed + " blocks had been changed, the remaining ones will be left as they are.");
+					continue;
+				}
+				jobs.poll();
+				final Runnable onDone = j.onDone;
+				if (onDone != null)
+					onDone.run();
+				if (System.nanoTime() >= deadline)
+					return;
+			}
+			Bukkit.getScheduler().cancelTask(taskID);
+			taskID = -1;
+		}
+	};
+	
+	private final static Comparator<Block> chunkOrder = new Comparator<Block>() {
+		@Override
+		public int compare(final Block b1, final Block b2) {
+			final int c = Integer.compare(b1.getX() >> 4, b2.getX() >> 4);
+			return c != 0 ? c : Integer.compare(b1.getZ() >> 4, b2.getZ() >> 4);
+		}
+	};
+	
+	/**
+	 * Queues a change of the given blocks. The blocks are changed in the following ticks; jobs are processed in the order they are added.
+	 * 
+	 * @param blocks The blocks to change
+	 * @param type The type to set the blocks to, or null to remove them
+	 * @param onDone Executed on the main thread after all blocks have been changed
+	 * @return The queued job
+	 */
+	public static Job add(final Iterator<? extends Block> blocks, final @Nullable ItemType type, final @Nullable Runnable onDone) {
+		final Job j;
+		if (blocks instanceof BlockAreaIterator) {
+			j = new Job(blocks, -1, type, onDone);
+		} else {
+			final List<Block> list = new ArrayList<>();
+			while (blocks.hasNext())
+				list.add(blocks.next());
+			Collections.sort(list, chunkOrder);
+			j = new Job(list.iterator(), list.size(), type, onDone);
+		}
+		jobs.add(j);
+		if (taskID == -1)
+			taskID = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), task, 1, 1);
+		return j;
+	}
+	
+}
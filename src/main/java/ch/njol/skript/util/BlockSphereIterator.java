@@ -20,26 +20,59 @@
 package ch.njol.skript.util;
 
 import org.bukkit.Location;
-import org.bukkit.block.Block;
-import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.Skript;
-import ch.njol.util.NullableChecker;
-import ch.njol.util.coll.iterator.CheckedIterator;
 
 /**
+ * Iterates over all blocks whose centre is within a certain radius of a location, chunk by chunk.
+ * <p>
+ * Instead of testing the distance of every block of the surrounding box, the range of y coordinates in the sphere is computed once per column.
+ * 
  * @author Peter Güttinger
  */
-public class BlockSphereIterator extends CheckedIterator<Block> {
+public class BlockSphereIterator extends BlockAreaIterator {
+
+	private final double centerX, centerY, centerZ;
+	private final double rSquared;
+	private final int maxHeight;
 	
 	public BlockSphereIterator(final Location center, final double radius) {
-		super(new AABB(center, radius + 0.5001, radius + 0.5001, radius + 0.5001).iterator(), new NullableChecker<Block>() {
-			private final double rSquared = radius * radius * Skript.EPSILON_MULT;
-			
-			@Override
-			public boolean check(final @Nullable Block b) {
-				return b != null && center.distanceSquared(b.getLocation().add(0.5, 0.5, 0.5)) < rSquared;
-			}
-		});
+		super(center.getWorld(), (int) Math.floor(center.getX() - radius - 0.5) - 1, (int) Math.ceil(center.getX() + radius - 0.5) + 1,
+				(int) Math.floor(center.getZ() - radius - 0.5) - 1, (int) Math.ceil(center.getZ() + radius - 0.5) + 1);
+		centerX = center.getX();
+		centerY = center.getY();
+		centerZ = center.getZ();
+		rSquared = radius * radius * Skript.EPSILON_MULT;
+		maxHeight = world.getMaxHeight();
+	}
+
+	/**
+	 * Same test as <tt>center.distanceSquared(block.getLocation().add(0.5, 0.5, 0.5)) < rSquared</tt>
+	 */
+	private boolean contains(final double dxSquared, final int y, final double dzSquared) {
+		final double dy = centerY - (y + 0.5);
+		return dxSquared + dy * dy + dzSquared < rSquared;
 	}
+
+	@Override
+	protected boolean setColumn(final int x, final int z) {
+		final double dx = centerX - (x + 0.5), dz = centerZ - (z + 0.5);
+		final double dxSquared = dx * dx, dzSquared = dz * dz;
+		final double h = Math.sqrt(Math.max(rSquared - dxSquared - dzSquared, 0));
+		int min = Math.max((int) Math.floor(centerY - h - 0.5) + 1, 0);
+		int max = Math.min((int) Math.ceil(centerY + h - 0.5) - 1, maxHeight - 1);
+		// the estimate may be off by one due to rounding errors
+		while (min > 0 && contains(dxSquared, min - 1, dzSquared))
+			min--;
+		while (max < maxHeight - 1 && contains(dxSquared, max + 1, dzSquared))
+			max++;
+		while (min <= max && !contains(dxSquared, min, dzSquared))
+			min++;
+		while (min <= max && !contains(dxSquared, max, dzSquared))
+			max--;
+		columnMinY = min;
+		columnMaxY = max;
+		return min <= max;
+	}
+
 }
@@ -0,0 +1,271 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+
+/**
+ * Caches the entities of worlds for the duration of a tick, so that scripts which search for entities many times per tick (e.g. for nearby mobs of every player)
+ * don't have to scan the worlds' entity lists every time.
+ * <p>
+ * Entities are bucketed by chunk for radius searches, and lists of entities of a given class are remembered for world-wide searches. A world is only indexed once it
+ * has been searched more than once in the same tick, as a single search is cheaper than building the index.
+ * <p>
+ * The index is discarded whenever entities are spawned, teleported or die, and code that spawns or teleports entities without causing an event should call
+ * {@link #invalidate()}. Entities that are removed in the same tick are filtered out, and radius searches check the entities' current locations, as entities
+ * may have moved since the index was built. The index is only used on the main thread.
+ */
+public abstract class EntityIndex {
+	private EntityIndex() {}
+	
+	/**
+	 * The entities of one chunk, with their coordinates stored inline so that radius searches don't have to create a {@link Location} for every entity.
+	 */
+	private final static class Bucket {
+		Entity[] entities = new Entity[4];
+		double[] coordinates = new double[3 * 4];
+		int size = 0;
+		
+		void add(final Entity e, final Location l) {
+			if (size == entities.length) {
+				entities = Arrays.copyOf(entities, size * 2);
+				coordinates = Arrays.copyOf(coordinates, size * 2 * 3);
+			}
+			entities[size] = e;
+			coordinates[3 * size] = l.getX();
+			coordinates[3 * size + 1] = l.getY();
+			coordinates[3 * size + 2] = l.getZ();
+			size++;
+		}
+	}
+	
+	private final static class WorldIndex {
+		int radiusSearches = 0;
+		@Nullable
+		Map<Long, Bucket> chunks = null;
+		final Map<Class<? extends Entity>, List<? extends Entity>> byClass = new HashMap<>();
+		
+		Map<Long, Bucket> getChunks(final World w) {
+			Map<Long, Bucket> chunks = this.chunks;
+			if (chunks != null)
+				return chunks;
+			chunks = new HashMap<>();
+			final Location l = new Location(w, 0, 0, 0);
+			for (final Entity e : w.getEntities()) {
+				e.getLocation(l);
+				final Long key = chunkKey(l.getBlockX() >> 4, l.getBlockZ() >> 4);
+				Bucket b = chunks.get(key);
+				if (b == null)
+					chunks.put(key, b = new Bucket());
+				b.add(e, l);
+			}
+			return this.chunks = chunks;
+		}
+	}
+	
+	/**
+	 * How far an entity may have moved since the index was built without being found by radius searches that it has moved into. Entities only move this
+	 * far within a tick if they are teleported, which invalidates the index.
+	 */
+	private final static double MAX_MOVEMENT = 16;
+	
+	/**
+	 * Events after which the index is discarded as they add entities or move them far. Events that don't exist in the server's version are ignored.
+	 */
+	private final static String[] invalidatingEvents = Skript.classExists("org.bukkit.event.entity.EntitySpawnEvent")
+			? new String[] {"org.bukkit.event.entity.EntitySpawnEvent", "org.bukkit.event.entity.EntityDeathEvent", "org.bukkit.event.entity.EntityTeleportEvent",
+					"org.bukkit.event.player.PlayerTeleportEvent", "org.bukkit.event.player.PlayerJoinEvent", "org.bukkit.event.player.PlayerRespawnEvent",
+					"org.bukkit.event.vehicle.VehicleCreateEvent", "org.bukkit.event.hanging.HangingPlaceEvent", "org.bukkit.event.world.ChunkLoadEvent"}
+			: new String[] {"org.bukkit.event.entity.CreatureSpawnEvent", "org.bukkit.event.entity.ItemSpawnEvent", "org.bukkit.event.entity.ProjectileLaunchEvent",
+					"org.bukkit.event.entity.EntityDeathEvent", "org.bukkit.event.entity.EntityTeleportEvent", "org.bukkit.event.player.PlayerTeleportEvent",
+					"org.bukkit.event.player.PlayerJoinEvent", "org.bukkit.event.player.PlayerRespawnEvent", "org.bukkit.event.vehicle.VehicleCreateEvent",
+					"org.bukkit.event.hanging.HangingPlaceEvent", "org.bukkit.event.world.ChunkLoadEvent"};
+	private static boolean registeredListener = false;
+	
+	private final static Map<World, WorldIndex> worlds = new HashMap<>();
+	
+	private final static TickCache cache = new TickCache() {
+		@Override
+		protected void clear() {
+			worlds.clear();
+		}
+	};
+	
+	final static long chunkKey(final int x, final int z) {
+		return (long) x << 32 | z & 0xFFFFFFFFL;
+	}
+	
+	/**
+	 * @return The index of the given world for the current tick, or null if the index cannot be used
+	 */
+	@Nullable
+	private static WorldIndex getIndex(final World w) {
+		if (!cache.use())
+			return null;
+		if (!registeredListener)
+			registerListener();
+		WorldIndex i = worlds.get(w);
+		if (i == null)
+			worlds.put(w, i = new WorldIndex());
+		return i;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static void registerListener() {
+		registeredListener = true;
+		final Listener listener = new Listener() {};
+		final EventExecutor executor = new EventExecutor() {
+			@Override
+			public void execute(final @Nullable Listener l, final @Nullable Event e) {
+				if (!worlds.isEmpty())
+					invalidate();
+			}
+		};
+		for (final String name : invalidatingEvents) {
+			try {
+				final Class<? extends Event> c = (Class<? extends Event>) Class.forName(name);
+				Bukkit.getPluginManager().registerEvent(c, listener, EventPriority.MONITOR, executor, Skript.getInstance(), true);
+			} catch (final ClassNotFoundException e) {}
+		}
+	}
+	
+	/**
+	 * Discards all cached entities. Called automatically at the end of every tick in which the index was used, and whenever entities are spawned, teleported or
+	 * die.
+	 */
+	public static void invalidate() {
+		cache.invalidate();
+	}
+	
+	/**
+	 * Gets all entities whose location is within the given radius around the given location.
+	 * 
+	 * @param center
+	 * @param radius
+	 * @return The entities in the radius. The returned collection must not be modified.
+	 */
+	@SuppressWarnings("null")
+	public static Collection<Entity> getNearbyEntities(final Location center, final double radius) {
+		final World w = center.getWorld();
+		final double x = center.getX(), y = center.getY(), z = center.getZ();
+		final double radiusSquared = radius * radius * Skript.EPSILON_MULT;
+		final List<Entity> r = new ArrayList<>();
+		
+		final WorldIndex i = getIndex(w);
+		if (i == null || ++i.radiusSearches < 2) {
+			final Location l = new Location(w, 0, 0, 0);
+			for (final Entity e : w.getNearbyEntities(center, radius, radius, radius)) {
+				e.getLocation(l);
+				if (distanceSquared(l.getX() - x, l.getY() - y, l.getZ() - z) <= radiusSquared)
+					r.add(e);
+			}
+			return r;
+		}
+		
+		// the cached coordinates are only used to find candidates, whose current locations are checked afterwards
+		final Map<Long, Bucket> chunks = i.getChunks(w);
+		final double searchRadius = radius + MAX_MOVEMENT;
+		final double searchRadiusSquared = searchRadius * searchRadius * Skript.EPSILON_MULT;
+		final Location l = new Location(w, 0, 0, 0);
+		final int minX = (int) Math.floor(x - searchRadius) >> 4, maxX = (int) Math.floor(x + searchRadius) >> 4;
+		final int minZ = (int) Math.floor(z - searchRadius) >> 4, maxZ = (int) Math.floor(z + searchRadius) >> 4;
+		if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > chunks.size()) {
+			for (final Bucket b : chunks.values())
+				search(b, w, x, y, z, searchRadiusSquared, radiusSquared, l, r);
+		} else {
+			for (int cx = minX; cx <= maxX; cx++) {
+				for (int cz = minZ; cz <= maxZ; cz++) {
+					final Bucket b = chunks.get(chunkKey(cx, cz));
+					if (b != null)
+						search(b, w, x, y, z, searchRadiusSquared, radiusSquared, l, r);
+				}
+			}
+		}
+		return r;
+	}
+	
+	/**
+	 * @param searchRadiusSquared Squared radius around the center in which the cached coordinates of an entity must be for it to be checked
+	 * @param radiusSquared Squared radius around the center in which the current location of an entity must be
+	 * @param l A location to reuse
+	 */
+	private static void search(final Bucket b, final World w, final double x, final double y, final double z, final double searchRadiusSquared,
+			final double radiusSquared, final Location l, final List<Entity> r) {
+		final double[] c = b.coordinates;
+		for (int j = 0; j < b.size; j++) {
+			if (distanceSquared(c[3 * j] - x, c[3 * j + 1] - y, c[3 * j + 2] - z) > searchRadiusSquared)
+				continue;
+			final Entity e = b.entities[j];
+			if (!e.isValid())
+				continue;
+			e.getLocation(l);
+			if (l.getWorld() == w && distanceSquared(l.getX() - x, l.getY() - y, l.getZ() - z) <= radiusSquared)
+				r.add(e);
+		}
+	}
+	
+	private static double distanceSquared(final double dx, final double dy, final double dz) {
+		return dx * dx + dy * dy + dz * dz;
+	}
+	
+	/**
+	 * Gets all entities of the given class in the given world, like {@link World#getEntitiesByClass(Class)}.
+	 * 
+	 * @param w
+	 * @param c
+	 * @return The entities of the given class. The returned collection must not be modified.
+	 */
+	@SuppressWarnings({"unchecked", "null"})
+	public static <E extends Entity> Collection<E> getEntities(final World w, final Class<E> c) {
+		final WorldIndex i = getIndex(w);
+		if (i == null)
+			return w.getEntitiesByClass(c);
+		List<E> es = (List<E>) i.byClass.get(c);
+		if (es == null) {
+			es = new ArrayList<>(w.getEntitiesByClass(c));
+			i.byClass.put(c, es);
+			return es;
+		}
+		final List<E> valid = new ArrayList<>(es.size());
+		for (final E e : es) {
+			if (e.isValid())
+				valid.add(e);
+		}
+		return valid;
+	}
+	
+}
@@ -0,0 +1,71 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import org.bukkit.Bukkit;
+
+import ch.njol.skript.Skript;
+
+/**
+ * A cache that is only valid for the current tick and is cleared automatically at the end of every tick in which it was used. Only usable on the main thread.
+ */
+public abstract class TickCache {
+	
+	private boolean invalidationScheduled = false;
+	
+	private final Runnable invalidator = new Runnable() {
+		@Override
+		public void run() {
+			invalidate();
+		}
+	};
+	
+	/**
+	 * Must be called before every access to the cache.
+	 * 
+	 * @return Whether the cache can be used, i.e. whether this is the main thread and the cache will be cleared at the end of the tick
+	 */
+	public final boolean use() {
+		if (!Bukkit.isPrimaryThread())
+			return false;
+		if (!invalidationScheduled) {
+			if (!Skript.getInstance().isEnabled())
+				return false;
+			if (Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), invalidator) == -1)
+				return false;
+			invalidationScheduled = true;
+		}
+		return true;
+	}
+	
+	/**
+	 * Clears the cache now. Called automatically at the end of the tick.
+	 */
+	public final void invalidate() {
+		clear();
+		invalidationScheduled = false;
+	}
+	
+	/**
+	 * Discards all cached data.
+	 */
+	protected abstract void clear();
+	
+}
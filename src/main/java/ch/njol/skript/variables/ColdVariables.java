@@ -0,0 +1,575 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.classes.Serializer;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.util.Closeable;
+import ch.njol.util.NonNullPair;
+
+/**
+ * Keeps the elements of rarely read list variables serialised in a memory-mapped file instead of on the heap.
+ * <p>
+ * The lists are configured with the option 'cold variables', e.g. <tt>log::*, history::*</tt>. Every minute, the elements of these lists and of their sublists are
+ * serialised into the file if their list has not been read for the time configured with 'cold variables idle time', and are replaced by a {@link ColdValue} in the
+ * variables tree. This sweep is spread over as many ticks as needed, spending at most {@link #SWEEP_TIME_PER_TICK} milliseconds per tick on it.
+ * {@link VariablesMap#getVariable(String)} deserialises cold variables and puts them back into the tree when they are read, thus scripts never see cold values.
+ * Reading a whole list makes its elements and the values of its sublists hot again, but not the elements of its sublists.
+ * <p>
+ * The file consists of segments of {@link #SEGMENT_SIZE} bytes which are mapped into memory separately. A segment is reused once all of its values have become hot
+ * again, and the values of mostly unused segments are moved to the current segment while sweeping. The file is only a cache: cold variables are saved by the variable
+ * storages like any other variable, and the file is cleared whenever Skript starts.
+ */
+class ColdVariables implements Closeable {
+	
+	private final static int SEGMENT_SIZE = 1 << 24;
+	
+	/**
+	 * Values whose serialised form is shorter than this are kept on the heap, as their {@link ColdValue} would not be much smaller than them.
+	 */
+	private final static int MIN_LENGTH = 16;
+	
+	/**
+	 * In ticks
+	 */
+	private final static int SWEEP_INTERVAL = 60 * 20;
+	
+	/**
+	 * In milliseconds
+	 */
+	private final static int SWEEP_TIME_PER_TICK = 5;
+	
+	/**
+	 * A variable whose value is stored in the file.
+	 * <p>
+	 * Must be {@link ColdVariables#release(ColdValue) released} when it is removed from the variables tree, as its space in the file might be reused afterwards.
+	 */
+	final class ColdValue {
+		
+		final ClassInfo<?> type;
+		final long position;
+		final int length;
+		
+		ColdValue(final ClassInfo<?> type, final long position, final int length) {
+			this.type = type;
+			this.position = position;
+			this.length = length;
+		}
+		
+		/**
+		 * @return The serialised value, e.g. to save it without deserialising it first
+		 */
+		SerializedVariable.Value getValue() {
+			return new SerializedVariable.Value(type.getCodeName(), read(this));
+		}
+		
+	}
+	
+	private final File file;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	
+	/**
+	 * The names of the configured lists, split into their parts
+	 */
+	private final List<String[]> lists;
+	
+	/**
+	 * In milliseconds
+	 */
+	private final long idleTime;
+	
+	private final int segmentSize;
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+	/**
+	 * The number of bytes of cold values in each segment
+	 */
+	private int[] used = new int[0];
+	/**
+	 * Segments which do not contain any cold values and are not the {@link #current} segment
+	 */
+	private final BitSet free = new BitSet();
+	/**
+	 * The segment new values are appended to, or -1 if there is none yet
+	 */
+	private int current = -1;
+	private int currentEnd = 0;
+	
+	private boolean failed = false;
+	
+	/**
+	 * A list that is being swept
+	 */
+	private final static class SweptList {
+		
+		final ListVariableNode list;
+		/**
+		 * The list's index in its parent list, or null for the configured lists
+		 */
+		@Nullable
+		final String key;
+		final boolean own, idle;
+		/**
+		 * The indices of the list's elements when its sweep started, including null for the list's own value
+		 */
+		final String[] keys;
+		int next = 0;
+		/**
+		 * Whether all elements of the list swept so far have been made cold or cannot be made cold
+		 */
+		boolean swept;
+		
+		SweptList(final ListVariableNode list, final @Nullable String key, final boolean own, final boolean idle) {
+			this.list = list;
+			this.key = key;
+			this.own = own;
+			this.idle = idle;
+			final Set<String> keys = list.keySet();
+			this.keys = keys.toArray(new String[keys.size()]);
+			swept = idle;
+		}
+		
+	}
+	
+	/**
+	 * The lists of the current sweep that have not been swept completely yet, each list being an element of the previous one. Empty if there is no sweep in progress.
+	 */
+	private final List<SweptList> sweeping = new ArrayList<>();
+	/**
+	 * The index of the next configured list to sweep, or -1 if there is no sweep in progress
+	 */
+	private int nextList = -1;
+	private int ticksUntilSweep = SWEEP_INTERVAL;
+	private long idleSince;
+	/**
+	 * Segments whose values should be moved to the current segment during the current sweep, or null if there are none
+	 */
+	@Nullable
+	private boolean[] relocate;
+	
+	/**
+	 * @param lists The names of the lists whose elements may be made cold, split into their parts
+	 * @param idleTime How long a list must not have been read for its elements to be made cold, in milliseconds
+	 * @param segmentSize The size of the parts the file is split into. Values larger than this are always kept on the heap.
+	 */
+	@SuppressWarnings("null")
+	ColdVariables(final File file, final List<String[]> lists, final long idleTime, final int segmentSize) throws IOException {
+		this.file = file;
+		this.lists = lists;
+		this.idleTime = idleTime;
+		this.segmentSize = segmentSize;
+		raf = new RandomAccessFile(file, "rw");
+		raf.setLength(0);
+		channel = raf.getChannel();
+	}
+	
+	/**
+	 * @return The cold variables as configured in the config, or null if there are no lists configured or they cannot be used
+	 */
+	@Nullable
+	static ColdVariables load() {
+		final String option = SkriptConfig.coldVariables.value().trim();
+		if (option.isEmpty() || option.equalsIgnoreCase("none"))
+			return null;
+		final String suffix = Variable.SEPARATOR + "*";
+		final List<String[]> lists = new ArrayList<>();
+		for (final String list : option.split("\\s*,\\s*")) {
+			final String l = "" + list.trim().toLowerCase(Locale.ENGLISH);
+			if (!l.endsWith(suffix) || l.length() == suffix.length() || l.indexOf('%') != -1) {
+				Skript.error("'" + list + "' is not a valid list for the option 'cold variables': lists must end in '" + suffix + "' and must not contain expressions, e.g. 'log" + suffix + "'");
+				return null;
+			}
+			lists.add(Variables.splitVariableName("" + l.substring(0, l.length() - suffix.length())));
+		}
+		final File f = new File(Skript.getInstance().getDataFolder(), "variables.cold");
+		try {
+			return new ColdVariables(f, lists, SkriptConfig.coldVariablesIdleTime.value().getMilliSeconds(), SEGMENT_SIZE);
+		} catch (final IOException e) {
+			Skript.error("Cannot create the file '" + f.getPath() + "' for cold variables, thus all variables will be kept in memory: " + ExceptionUtils.toString(e));
+			return null;
+		}
+	}
+	
+	/**
+	 * Called whenever a variable in a list is read. Makes the variable hot if it is cold.
+	 *
+	 * @param list The list containing the variable
+	 * @param key The variable's index in the list, or null for the list's own value
+	 * @param value The variable's value in the list
+	 * @return The variable's actual value, or null if it cannot be deserialised
+	 */
+	@Nullable
+	Object access(final ListVariableNode list, final @Nullable String key, final Object value) {
+		list.lastAccess = System.currentTimeMillis();
+		if (value instanceof ColdValue)
+			return promote(list, key, (ColdValue) value);
+		return value;
+	}
+	
+	/**
+	 * Called whenever a list is read as a whole. Makes its elements and the values of its sublists hot.
+	 */
+	void access(final ListVariableNode list) {
+		list.lastAccess = System.currentTimeMillis();
+		if (!list.hasCold)
+			return;
+		for (final Entry<String, Object> e : list.entrySet()) {
+			final Object value = e.getValue();
+			if (value instanceof ColdValue) {
+				promote(list, e.getKey(), (ColdValue) value);
+			} else if (value instanceof ListVariableNode) {
+				final Object v = ((ListVariableNode) value).get(null);
+				if (v instanceof ColdValue)
+					promote((ListVariableNode) value, null, (ColdValue) v);
+			}
+		}
+		list.hasCold = false;
+	}
+	
+	@Nullable
+	private Object promote(final ListVariableNode list, final @Nullable String key, final ColdValue cold) {
+		final Object value = deserialize(cold.type, read(cold));
+		if (value != null && list.replaceElement(key, cold, value))
+			release(cold);
+		return value;
+	}
+	
+	/**
+	 * Releases the cold values of a variable or list that has been removed from the variables tree.
+	 *
+	 * @param keepOwnValue Whether the list's own value is still in the tree
+	 */
+	void removed(final Object value, final boolean keepOwnValue) {
+		if (value instanceof ColdValue) {
+			release((ColdValue) value);
+		} else if (value instanceof ListVariableNode) {
+			for (final Entry<String, Object> e : ((ListVariableNode) value).entrySet()) {
+				if (e.getKey() != null || !keepOwnValue)
+					removed(e.getValue(), false);
+			}
+		}
+	}
+	
+	/**
+	 * Called every tick on Bukkit's main thread.
+	 * 
+	 * @return Whether {@link #sweep(ListVariableNode)} should be called in this tick
+	 */
+	boolean isSweepDue() {
+		if (nextList != -1)
+			return true;
+		if (--ticksUntilSweep > 0)
+			return false;
+		ticksUntilSweep = SWEEP_INTERVAL;
+		return true;
+	}
+	
+	/**
+	 * Makes the elements of the configured lists cold if their list has not been read for a while. Starts a new sweep if there is none in progress, and continues it for
+	 * at most {@link #SWEEP_TIME_PER_TICK} milliseconds.
+	 * <p>
+	 * Must be called on Bukkit's main thread while holding the variables' write lock.
+	 * 
+	 * @return Whether the sweep is complete
+	 */
+	boolean sweep(final ListVariableNode root) {
+		return sweep(root, SWEEP_TIME_PER_TICK * 1000000L);
+	}
+	
+	/**
+	 * @param time For how long to sweep at most, in nanoseconds. At least one element is swept even if this is 0.
+	 * @see #sweep(ListVariableNode)
+	 */
+	boolean sweep(final ListVariableNode root, final long time) {
+		final long deadline = System.nanoTime() + time;
+		if (nextList == -1) {
+			idleSince = System.currentTimeMillis() - idleTime;
+			relocate = getSparseSegments();
+			nextList = 0;
+		} else {
+			resume(root);
+		}
+		do {
+			if (sweeping.isEmpty()) {
+				if (nextList == lists.size()) {
+					nextList = -1;
+					relocate = null;
+					return true;
+				}
+				final ListVariableNode list = getList(root, nextList++);
+				if (list != null)
+					startSweep(list, null, false);
+			} else {
+				sweepNext();
+			}
+		} while (System.nanoTime() < deadline);
+		return false;
+	}
+	
+	/**
+	 * @return The configured list with the given index, or null if it is not set
+	 */
+	@Nullable
+	private final ListVariableNode getList(final ListVariableNode root, final int index) {
+		ListVariableNode list = root;
+		for (final String n : lists.get(index)) {
+			final Object o = list.get(n);
+			if (!(o instanceof ListVariableNode))
+				return null;
+			list = (ListVariableNode) o;
+		}
+		return list;
+	}
+	
+	/**
+	 * Stops sweeping lists that have been removed from the variables tree since the last tick, as their cold values would never be released.
+	 */
+	private void resume(final ListVariableNode root) {
+		for (int i = 0; i < sweeping.size(); i++) {
+			final SweptList s = sweeping.get(i);
+			final Object current = i == 0 ? getList(root, nextList - 1) : sweeping.get(i - 1).list.get(s.key);
+			if (current != s.list) {
+				sweeping.subList(i, sweeping.size()).clear();
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * @param own Whether the list's own value may be made cold. The values of the configured lists themselves are always kept hot, as they are read when their parent list
+	 *            is read.
+	 */
+	private void startSweep(final ListVariableNode list, final @Nullable String key, final boolean own) {
+		if (list.swept && relocate == null)
+			return;
+		sweeping.add(new SweptList(list, key, own, list.lastAccess <= idleSince));
+		list.swept = true; // reset by VariablesMap if the list is changed until its sweep is complete
+	}
+	
+	/**
+	 * Sweeps the next element of the innermost list that is being swept.
+	 */
+	private void sweepNext() {
+		final SweptList s = sweeping.get(sweeping.size() - 1);
+		if (s.next == s.keys.length) {
+			sweeping.remove(sweeping.size() - 1);
+			s.list.swept &= s.swept;
+			if (!sweeping.isEmpty())
+				sweeping.get(sweeping.size() - 1).swept &= s.list.swept;
+			return;
+		}
+		final String key = s.keys[s.next++];
+		final Object value = s.list.get(key);
+		if (value == null)
+			return;
+		if (value instanceof ListVariableNode) {
+			startSweep((ListVariableNode) value, key, true);
+			return;
+		}
+		if (key == null && !s.own)
+			return;
+		if (value instanceof ColdValue) {
+			if (shouldRelocate((ColdValue) value))
+				relocate(s.list, key, (ColdValue) value);
+		} else if (s.idle && demote(s.list, key, value) instanceof ColdValue) {
+			// the list containing a cold value must know about it immediately, as it might be read before the sweep is complete
+			if (key != null)
+				s.list.hasCold = true;
+			else
+				sweeping.get(sweeping.size() - 2).list.hasCold = true;
+		}
+	}
+	
+	private boolean shouldRelocate(final ColdValue cold) {
+		final boolean[] relocate = this.relocate;
+		final int segment = segment(cold);
+		return relocate != null && segment < relocate.length && relocate[segment] && segment != current;
+	}
+	
+	/**
+	 * @return The value that is now in the list, i.e. a {@link ColdValue} or the given value if it cannot be made cold
+	 */
+	private Object demote(final ListVariableNode list, final @Nullable String key, final Object value) {
+		if (failed)
+			return value;
+		final NonNullPair<ClassInfo<?>, byte[]> v = serialize(value);
+		if (v == null || v.getSecond().length < MIN_LENGTH || v.getSecond().length > segmentSize)
+			return value;
+		final ColdValue cold = store(v.getFirst(), v.getSecond());
+		if (cold == null || !list.replaceElement(key, value, cold))
+			return value;
+		return cold;
+	}
+	
+	/**
+	 * @return The value's type and serialised form, or null if the value cannot be made cold
+	 */
+	@Nullable
+	NonNullPair<ClassInfo<?>, byte[]> serialize(final Object value) {
+		final SerializedVariable.Value v = Classes.serialize(value);
+		if (v == null)
+			return null;
+		final ClassInfo<?> type = Classes.getClassInfoNoError(v.type);
+		final Serializer<?> s = type == null ? null : type.getSerializer();
+		if (type == null || s == null || s.mustSyncDeserialization()) // cold variables can be read from any thread
+			return null;
+		return new NonNullPair<ClassInfo<?>, byte[]>(type, v.data);
+	}
+	
+	@Nullable
+	Object deserialize(final ClassInfo<?> type, final byte[] data) {
+		return Classes.deserialize(type, data);
+	}
+	
+	private Object relocate(final ListVariableNode list, final @Nullable String key, final ColdValue cold) {
+		final ColdValue moved = store(cold.type, read(cold));
+		if (moved == null || !list.replaceElement(key, cold, moved))
+			return cold;
+		release(cold);
+		return moved;
+	}
+	
+	private int segment(final ColdValue cold) {
+		return (int) (cold.position / segmentSize);
+	}
+	
+	@Nullable
+	private synchronized ColdValue store(final ClassInfo<?> type, final byte[] data) {
+		if (current == -1 || segmentSize - currentEnd < data.length) {
+			try {
+				newSegment();
+			} catch (final IOException e) {
+				Skript.error("Cannot write cold variables to the file '" + file.getPath() + "', thus all other variables will be kept in memory: " + ExceptionUtils.toString(e));
+				failed = true;
+				return null;
+			}
+		}
+		final ByteBuffer b = segments.get(current).duplicate();
+		b.position(currentEnd);
+		b.put(data);
+		final ColdValue cold = new ColdValue(type, (long) current * segmentSize + currentEnd, data.length);
+		currentEnd += data.length;
+		used[current] += data.length;
+		return cold;
+	}
+	
+	private void newSegment() throws IOException {
+		int i = free.nextSetBit(0);
+		if (i == -1) {
+			i = segments.size();
+			segments.add(channel.map(MapMode.READ_WRITE, (long) i * segmentSize, segmentSize));
+			used = Arrays.copyOf(used, i + 1);
+		} else {
+			free.clear(i);
+		}
+		if (current != -1 && used[current] == 0)
+			free.set(current);
+		current = i;
+		currentEnd = 0;
+	}
+	
+	final synchronized byte[] read(final ColdValue cold) {
+		final ByteBuffer b = segments.get(segment(cold)).duplicate();
+		b.position((int) (cold.position % segmentSize));
+		final byte[] data = new byte[cold.length];
+		b.get(data);
+		return data;
+	}
+	
+	private synchronized void release(final ColdValue cold) {
+		final int segment = segment(cold);
+		used[segment] -= cold.length;
+		assert used[segment] >= 0;
+		if (used[segment] == 0) {
+			if (segment == current)
+				currentEnd = 0;
+			else
+				free.set(segment);
+		}
+	}
+	
+	/**
+	 * @return Which segments are used by only a few values, or null if there are no such segments
+	 */
+	@Nullable
+	private synchronized boolean[] getSparseSegments() {
+		boolean[] sparse = null;
+		for (int i = 0; i < segments.size(); i++) {
+			if (i != current && used[i] != 0 && used[i] < segmentSize / 4) {
+				if (sparse == null)
+					sparse = new boolean[segments.size()];
+				sparse[i] = true;
+			}
+		}
+		return sparse;
+	}
+	
+	/**
+	 * @return The number of segments of the file
+	 */
+	final synchronized int getSegmentCount() {
+		return segments.size();
+	}
+	
+	/**
+	 * @return The number of bytes of cold values in the file
+	 */
+	final synchronized long getUsedBytes() {
+		long r = 0;
+		for (final int u : used)
+			r += u;
+		return r;
+	}
+	
+	/**
+	 * Closes the file. Cold variables can still be read afterwards, as the segments stay mapped until they are garbage collected.
+	 */
+	@Override
+	public void close() {
+		try {
+			channel.close();
+			raf.close();
+		} catch (final IOException e) {}
+		file.delete();
+	}
+	
+}
@@ -23,9 +23,12 @@ import java.io.File;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import lib.PatPeter.SQLibrary.Database;
 import lib.PatPeter.SQLibrary.DatabaseException;
@@ -128,6 +131,57 @@ public class DatabaseStorage extends VariablesStorage {
 	 */
 	private final static long TRANSACTION_DELAY = 500;
 	
+	/**
+	 * The maximum number of changed rows fetched at once when monitoring the database
+	 */
+	private final static int MONITOR_PAGE_SIZE = 500;
+	/**
+	 * Fetching changes pauses while this many changes are waiting to be applied
+	 */
+	private final static int MAX_PENDING_CHANGES = 10 * MONITOR_PAGE_SIZE;
+	/**
+	 * Milliseconds per tick that may be spent on applying changes from the database
+	 */
+	private final static long MONITOR_TIME_PER_TICK = 5;
+	
+	/**
+	 * A variable that has been changed by another server
+	 */
+	private final static class Change {
+		
+		final String name;
+		/**
+		 * The class the value still has to be deserialised as on the main thread, or null if it is already deserialised
+		 */
+		@Nullable
+		ClassInfo<?> type;
+		/**
+		 * The variable's new value, which is serialised if {@link #type} is not null, or null if the variable has been deleted
+		 */
+		@Nullable
+		Object value;
+		/**
+		 * When the change was fetched from the database
+		 */
+		final long fetched;
+		
+		Change(final String name, final @Nullable ClassInfo<?> type, final @Nullable Object value, final long fetched) {
+			this.name = name;
+			this.type = type;
+			this.value = value;
+			this.fetched = fetched;
+		}
+		
+	}
+	
+	/**
+	 * Changes fetched by the monitor thread that have not yet been applied by the {@link #applyTask}
+	 */
+	private final LinkedBlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+	
+	@Nullable
+	private Task applyTask;
+	
 	DatabaseStorage(final String name, final Type type) {
 		super(name);
 		this.type = type;
@@ -310,6 +364,12 @@ public class DatabaseStorage extends VariablesStorage {
 		}, "Skript database '" + databaseName + "' transaction committing thread").start();
 		
 		if (monitor) {
+			applyTask = new Task(Skript.getInstance(), 1, 1) {
+				@Override
+				public void run() {
+					applyChanges();
+				}
+			};
 			Skript.newThread(new Runnable() {
 				@Override
 				public void run() {
@@ -324,12 +384,16 @@ public class DatabaseStorage extends VariablesStorage {
 						final long next = System.currentTimeMillis() + monitor_interval;
 						checkDatabase();
 						final long now = System.currentTimeMillis();
-						if (next < now && lastWarning + WARING_INTERVAL * 1000 < now) {
+						final long lag = getMonitorLag();
+						if ((next < now || lag > monitor_interval) && lastWarning + WARING_INTERVAL * 1000 < now) {
 							// TODO don't print this message when Skript loads (because scripts are loaded after variables and take some time)
-							Skript.warning("Cannot load variables from the database fast enough (loading took " + ((now - next + monitor_interval) / 1000.) + "s, monitor interval = " + (monitor_interval / 1000.) + "s). " +
+							Skript.warning("Cannot load variables from the database fast enough (loading took " + ((now - next + monitor_interval) / 1000.) + "s, " +
+									changes.size() + " changes are waiting to be applied since " + (lag / 1000.) + "s, monitor interval = " + (monitor_interval / 1000.) + "s). " +
 									"Please increase your monitor interval or reduce usage of variables. " +
 									"(this warning will be repeated at most once every " + WARING_INTERVAL + " seconds)");
 							lastWarning = now;
+						} else if (Skript.debug() && lag > 0) {
+							Skript.debug("The monitor of the database '" + databaseName + "' lags " + (lag / 1000.) + "s behind (" + changes.size() + " changes waiting to be applied)");
 						}
 						while (System.currentTimeMillis() < next) {
 							try {
@@ -409,7 +473,7 @@ public class DatabaseStorage extends VariablesStorage {
 					if (monitorQuery != null)
 						monitorQuery.close();
 				} catch (final SQLException e) {}
-				monitorQuery = db.prepare("SELECT " + SELECT_ORDER + " FROM " + TABLE_NAME + " WHERE rowid > ? AND update_guid != ?");
+				monitorQuery = db.prepare("SELECT " + SELECT_ORDER + " FROM " + TABLE_NAME + " WHERE rowid > ? AND update_guid != ? ORDER BY rowid LIMIT ?");
 				try {
 					if (monitorCleanUpQuery != null)
 						monitorCleanUpQuery.close();
@@ -449,9 +513,9 @@ public class DatabaseStorage extends VariablesStorage {
 	@Nullable
 	private PreparedStatement deleteQuery;
 	/**
-	 * Params: rowID, GUID
+	 * Params: rowID, GUID, limit
 	 * <p>
-	 * Selects changed rows. values in order: {@value #SELECT_ORDER}
+	 * Selects changed rows ordered by their rowid. values in order: {@value #SELECT_ORDER}
 	 */
 	@Nullable
 	private PreparedStatement monitorQuery;
@@ -499,6 +563,9 @@ public class DatabaseStorage extends VariablesStorage {
 	@SuppressWarnings("null")
 	@Override
 	public void close() {
+		final Task applyTask = this.applyTask;
+		if (applyTask != null)
+			applyTask.close();
 		synchronized (db) {
 			super.close();
 			final Database db = this.db.get();
@@ -516,29 +583,58 @@ public class DatabaseStorage extends VariablesStorage {
 	
 	long lastRowID = -1;
 	
+	/**
+	 * Fetches the rows changed by other servers page by page and queues them to be applied on the main thread. Values are deserialised on this thread unless their
+	 * serializer requires the main thread. Waits while too many changes are queued, thus a slow server does not fetch more changes than it can apply.
+	 */
 	protected void checkDatabase() {
 		try {
-			final long lastRowID; // local variable as this is used to clean the database below
-			ResultSet r = null;
-			try {
-				synchronized (db) {
-					if (closed || db.get() == null)
-						return;
-					lastRowID = this.lastRowID;
-					final PreparedStatement monitorQuery = this.monitorQuery;
-					assert monitorQuery != null;
-					monitorQuery.setLong(1, lastRowID);
-					monitorQuery.setString(2, guid);
-					monitorQuery.execute();
-					r = monitorQuery.getResultSet();
-					assert r != null;
+			final long lastRowID = this.lastRowID; // local variable as this is used to clean the database below
+			int rows;
+			do {
+				final List<Change> page = new ArrayList<>(MONITOR_PAGE_SIZE);
+				ResultSet r = null;
+				try {
+					synchronized (db) {
+						if (closed || db.get() == null)
+							return;
+						final PreparedStatement monitorQuery = this.monitorQuery;
+						assert monitorQuery != null;
+						monitorQuery.setLong(1, this.lastRowID);
+						monitorQuery.setString(2, guid);
+						monitorQuery.setInt(3, MONITOR_PAGE_SIZE);
+						monitorQuery.setFetchSize(MONITOR_PAGE_SIZE);
+						monitorQuery.execute();
+						r = monitorQuery.getResultSet();
+						assert r != null;
+						rows = fetchChanges(r, page);
+					}
+				} finally {
+					if (r != null)
+						r.close();
 				}
-				if (!closed)
-					loadVariables(r);
-			} finally {
-				if (r != null)
-					r.close();
-			}
+				
+				for (final Change c : page) {
+					final ClassInfo<?> type = c.type;
+					final Serializer<?> s = type == null ? null : type.getSerializer();
+					if (type != null && s != null && !s.mustSyncDeserialization()) {
+						final Object d = Classes.deserialize(type, (byte[]) c.value);
+						if (d == null) {
+							Skript.error("Cannot load the variable {" + c.name + "} from the database '" + databaseName + "', because it cannot be loaded as " + type.getName().withIndefiniteArticle());
+							continue;
+						}
+						c.type = null;
+						c.value = d;
+					}
+					changes.add(c);
+				}
+				
+				while (changes.size() > MAX_PENDING_CHANGES && !closed) {
+					try {
+						Thread.sleep(50);
+					} catch (final InterruptedException e) {}
+				}
+			} while (rows == MONITOR_PAGE_SIZE && !closed);
 			
 			if (!closed) { // Skript may have been disabled in the meantime // TODO not fixed
 				new Task(Skript.getInstance(), (long) Math.ceil(2. * monitor_interval / 50) + 100, true) { // 2 times the interval + 5 seconds
@@ -564,6 +660,70 @@ public class DatabaseStorage extends VariablesStorage {
 		}
 	}
 	
+	/**
+	 * Reads a page of changed rows. Must be called while synchronized on {@link #db}.
+	 * 
+	 * @param r The result of the {@link #monitorQuery}
+	 * @param page The list to add the changes to
+	 * @return The number of rows read, including invalid ones
+	 */
+	private int fetchChanges(final ResultSet r, final List<Change> page) throws SQLException {
+		final long now = System.currentTimeMillis();
+		int rows = 0;
+		while (r.next()) {
+			rows++;
+			int i = 1;
+			final String name = r.getString(i++);
+			final String type = r.getString(i++);
+			final byte[] value = r.getBytes(i++); // Blob not supported by SQLite
+			lastRowID = r.getLong(i++);
+			if (name == null) {
+				Skript.error("Variable with NULL name found in the database '" + databaseName + "', ignoring it");
+				continue;
+			}
+			if (value == null) {
+				page.add(new Change(name, null, null, now));
+			} else {
+				final ClassInfo<?> c = Classes.getClassInfoNoError(type);
+				if (c == null || c.getSerializer() == null) {
+					Skript.error("Cannot load the variable {" + name + "} from the database '" + databaseName + "', because the type '" + type + "' cannot be recognised or cannot be stored in variables");
+					continue;
+				}
+				page.add(new Change(name, c, value, now));
+			}
+		}
+		return rows;
+	}
+	
+	/**
+	 * Applies the changes fetched by {@link #checkDatabase()} until the time per tick is used up. Must be called on Bukkit's main thread.
+	 */
+	void applyChanges() {
+		final long end = System.nanoTime() + MONITOR_TIME_PER_TICK * 1000000L;
+		Change c;
+		while (!closed && (c = changes.poll()) != null) {
+			Object value = c.value;
+			final ClassInfo<?> type = c.type;
+			if (type != null) {
+				value = Classes.deserialize(type, (byte[]) value);
+				if (value == null)
+					Skript.error("Cannot load the variable {" + c.name + "} from the database '" + databaseName + "', because it cannot be loaded as " + type.getName().withIndefiniteArticle());
+			}
+			if (type == null || value != null)
+				Variables.variableLoaded(c.name, value, this);
+			if (System.nanoTime() - end >= 0)
+				break;
+		}
+	}
+	
+	/**
+	 * @return How long the oldest change that has not yet been applied has been waiting, in milliseconds, or 0 if all fetched changes have been applied
+	 */
+	long getMonitorLag() {
+		final Change c = changes.peek();
+		return c == null ? 0 : System.currentTimeMillis() - c.fetched;
+	}
+	
 //	private final static class VariableInfo {
 //		final String name;
 //		final byte[] value;
@@ -30,8 +30,8 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -295,7 +295,7 @@ public class FlatFileStorage extends VariablesStorage {
 	@SuppressWarnings("null")
 	private final static Pattern containsWhitespace = Pattern.compile("\\s");
 	
-	private final static void writeCSV(final PrintWriter pw, final String... values) {
+	final static void writeCSV(final PrintWriter pw, final String... values) {
 		assert values.length == 3; // name, type, value
 		for (int i = 0; i < values.length; i++) {
 			if (i != 0)
@@ -425,20 +425,20 @@ public class FlatFileStorage extends VariablesStorage {
 	 * @param map
 	 */
 	@SuppressWarnings("unchecked")
-	private final void save(final PrintWriter pw, final String parent, final TreeMap<String, Object> map) {
+	private final void save(final PrintWriter pw, final String parent, final Map<String, Object> map) {
 		outer: for (final Entry<String, Object> e : map.entrySet()) {
 			final Object val = e.getValue();
 			if (val == null)
 				continue;
-			if (val instanceof TreeMap) {
-				save(pw, parent + e.getKey() + Variable.SEPARATOR, (TreeMap<String, Object>) val);
+			if (val instanceof Map) {
+				save(pw, parent + e.getKey() + Variable.SEPARATOR, (Map<String, Object>) val);
 			} else {
 				final String name = (e.getKey() == null ? parent.substring(0, parent.length() - Variable.SEPARATOR.length()) : parent + e.getKey());
 				for (final VariablesStorage s : Variables.storages) {
 					if (s != this && s.accept(name))
 						continue outer;
 				}
-				final SerializedVariable.Value value = Classes.serialize(val);
+				final SerializedVariable.Value value = val instanceof ColdVariables.ColdValue ? ((ColdVariables.ColdValue) val).getValue() : Classes.serialize(val);
 				if (value != null)
 					writeCSV(pw, name, value.type, encode(value.data));
 			}
@@ -0,0 +1,622 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.classes.Comparator;
+import ch.njol.skript.classes.Comparator.Relation;
+import ch.njol.skript.registrations.Comparators;
+import ch.njol.util.Pair;
+
+/**
+ * The contents of a list variable, i.e. a node of the variables tree. The list's own value (e.g. <tt>{list}</tt> for <tt>{list::*}</tt>) has the key null.
+ * <p>
+ * Elements with small positive integer indices, i.e. most elements of lists that are only added to, are kept in an array instead of a tree map, which saves the map's entry
+ * and the index string for each of them. Other indices are kept in a {@link TreeMap}, and are {@link String#intern() interned} if they are short, as the same few names
+ * are usually used in many lists (e.g. <tt>{stats::%player%::kills}</tt>). Iterating the list returns all elements ordered by
+ * {@link VariablesMap#exactVariableNameComparator}. The root of the variables tree is ordered like strings instead and keeps all of its elements in the tree map.
+ * <p>
+ * Indices are compared exactly, i.e. <tt>{list::01}</tt> and <tt>{list::1}</tt> are different elements, the former of which is kept in the tree map.
+ * <p>
+ * In addition to the entries this keeps track of the smallest index that might be free, so that adding to a list does not have to test every index from 1 upwards, and
+ * lazily builds an index of the values when the list is first searched for a value, which is then updated along with the list. It also keeps a snapshot of its elements
+ * for iterating the list, which is reused until the list is modified.
+ * <p>
+ * Must only be modified through {@link #put(String, Object)}, {@link #remove(Object)} and {@link #clear()}, as other modifications (e.g. through iterators) bypass the
+ * indices.
+ */
+final class ListVariableNode extends AbstractMap<String, Object> {
+	
+	private final static Object[] NO_ELEMENTS = new Object[0];
+	
+	/**
+	 * Indices up to this length are interned
+	 */
+	private final static int MAX_INTERNED_LENGTH = 16;
+	
+	/**
+	 * Whether this is the root of the variables tree
+	 */
+	private final boolean root;
+	
+	/**
+	 * Elements whose index is not an integer that fits into {@link #indexed}, and the list's own value.
+	 */
+	private final TreeMap<String, Object> named;
+	
+	/**
+	 * The elements with the indices 1 to <tt>indexed.length</tt>, i.e. <tt>indexed[i - 1]</tt> is the element with the index <tt>i</tt> or null if it is not set.
+	 * Larger integer indices are stored in {@link #named}.
+	 */
+	private Object[] indexed = NO_ELEMENTS;
+	/**
+	 * Number of non-null elements in {@link #indexed}
+	 */
+	private int indexedCount = 0;
+	
+	/**
+	 * All integer indices smaller than this are known to be used.
+	 */
+	private int freeIndexHint = 1;
+	
+	@Nullable
+	private ValueIndex valueIndex = null;
+	
+	/**
+	 * Incremented on every modification of this list
+	 */
+	private volatile int version = 0;
+	
+	@Nullable
+	private Snapshot snapshot = null;
+	
+	/**
+	 * When this list has last been read, in milliseconds. Only updated for global variables if {@link ColdVariables} are enabled.
+	 */
+	volatile long lastAccess = 0;
+	/**
+	 * Whether the elements of this list and its sublists have been made {@link ColdVariables cold} or cannot be made cold. Reset by {@link VariablesMap} whenever this
+	 * list or one of its sublists is changed.
+	 */
+	boolean swept = false;
+	/**
+	 * Whether elements of this list or the values of its sublists might be {@link ColdVariables cold}.
+	 */
+	volatile boolean hasCold = false;
+	
+	ListVariableNode() {
+		this(false);
+	}
+	
+	/**
+	 * @param root Whether this is the root of the variables tree, whose elements are ordered like strings
+	 */
+	ListVariableNode(final boolean root) {
+		this.root = root;
+		named = root ? new TreeMap<String, Object>() : new TreeMap<String, Object>(VariablesMap.exactVariableNameComparator);
+	}
+	
+	@Override
+	@Nullable
+	public Object get(final @Nullable Object key) {
+		if (key instanceof String) {
+			final int i = index((String) key);
+			if (0 < i && i <= indexed.length)
+				return indexed[i - 1];
+		} else if (key != null) {
+			return null;
+		}
+		return named.get(key);
+	}
+	
+	@Override
+	public boolean containsKey(final @Nullable Object key) {
+		return get(key) != null;
+	}
+	
+	@Override
+	public int size() {
+		return named.size() + indexedCount;
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return indexedCount == 0 && named.isEmpty();
+	}
+	
+	@Override
+	@Nullable
+	public synchronized Object put(final @Nullable String key, final Object value) {
+		final int i = key == null ? -1 : index(key);
+		final Object old;
+		if (0 < i && (i <= indexed.length || grow(i))) {
+			old = indexed[i - 1];
+			indexed[i - 1] = value;
+			if (old == null)
+				indexedCount++;
+		} else {
+			old = named.put(key == null || key.length() > MAX_INTERNED_LENGTH ? key : key.intern(), value);
+		}
+		modified();
+		final ValueIndex vi = valueIndex;
+		if (vi != null && key != null) {
+			if (old != null)
+				vi.remove(key, old);
+			vi.add(key, value);
+		}
+		return old;
+	}
+	
+	@Override
+	@Nullable
+	public synchronized Object remove(final @Nullable Object key) {
+		if (key != null && !(key instanceof String))
+			return null;
+		final int i = key == null ? -1 : index((String) key);
+		final Object old;
+		if (0 < i && i <= indexed.length) {
+			old = indexed[i - 1];
+			if (old != null) {
+				indexed[i - 1] = null;
+				indexedCount--;
+			}
+		} else {
+			old = named.remove(key);
+		}
+		if (old != null)
+			modified();
+		if (old != null && key != null) {
+			if (0 < i && i < freeIndexHint)
+				freeIndexHint = i;
+			final ValueIndex vi = valueIndex;
+			if (vi != null)
+				vi.remove((String) key, old);
+		}
+		return old;
+	}
+	
+	@Override
+	public synchronized void clear() {
+		named.clear();
+		indexed = NO_ELEMENTS;
+		indexedCount = 0;
+		modified();
+		freeIndexHint = 1;
+		valueIndex = null;
+	}
+	
+	private void modified() {
+		version++;
+		snapshot = null;
+	}
+	
+	/**
+	 * Replaces an element with another representation of the same value, i.e. with a {@link ColdVariables cold} value or vice versa. This does not count as a
+	 * modification of this list, but drops the list's snapshot and index, as they would keep the old representation in memory.
+	 * 
+	 * @param key The element's index, or null for the list's own value
+	 * @param expected The current value of the element
+	 * @param value The new value
+	 * @return Whether the element has been replaced, i.e. whether its value was still the expected one
+	 */
+	synchronized boolean replaceElement(final @Nullable String key, final Object expected, final Object value) {
+		final int i = key == null ? -1 : index(key);
+		if (0 < i && i <= indexed.length) {
+			if (indexed[i - 1] != expected)
+				return false;
+			indexed[i - 1] = value;
+		} else {
+			if (named.get(key) != expected)
+				return false;
+			named.put(key, value);
+		}
+		snapshot = null;
+		valueIndex = null;
+		return true;
+	}
+	
+	/**
+	 * Grows {@link #indexed} to include the given index, unless the array would become too sparse. Moves elements which fit into the grown array from {@link #named}.
+	 * 
+	 * @return Whether the array has been grown
+	 */
+	private boolean grow(final int index) {
+		final int maxLength = 2 * indexedCount + 16; // at least about half full
+		if (index > maxLength)
+			return false;
+		final int oldLength = indexed.length;
+		final int length = Math.max(index, Math.min(maxLength, oldLength + (oldLength >> 1) + 8));
+		indexed = Arrays.copyOf(indexed, length);
+		final Iterator<Entry<String, Object>> iter = named.subMap("" + (oldLength + 1), true, "" + length, true).entrySet().iterator();
+		while (iter.hasNext()) {
+			final Entry<String, Object> e = iter.next();
+			final int i = parseIndex(e.getKey());
+			if (oldLength < i && i <= length) {
+				indexed[i - 1] = e.getValue();
+				indexedCount++;
+				iter.remove();
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return The elements of this list ordered by their indices, with the list's own value first
+	 */
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				return new Iterator<Entry<String, Object>>() {
+					private final Iterator<Entry<String, Object>> namedIter = named.entrySet().iterator();
+					@Nullable
+					private Entry<String, Object> nextNamed = namedIter.hasNext() ? namedIter.next() : null;
+					private int nextIndex = findIndex(0);
+					
+					/**
+					 * @return The array index of the first element at or after the given array index, or -1 if there is none
+					 */
+					private int findIndex(int i) {
+						final Object[] indexed = ListVariableNode.this.indexed;
+						while (i < indexed.length && indexed[i] == null)
+							i++;
+						return i < indexed.length ? i : -1;
+					}
+					
+					@Override
+					public boolean hasNext() {
+						return nextNamed != null || nextIndex != -1;
+					}
+					
+					@Override
+					public Entry<String, Object> next() {
+						final Entry<String, Object> n = nextNamed;
+						if (nextIndex != -1) {
+							final String key = "" + (nextIndex + 1);
+							if (n == null || VariablesMap.exactVariableNameComparator.compare(n.getKey(), key) > 0) {
+								final Object value = indexed[nextIndex];
+								nextIndex = findIndex(nextIndex + 1);
+								return new SimpleImmutableEntry<>(key, value);
+							}
+						}
+						if (n == null)
+							throw new NoSuchElementException();
+						nextNamed = namedIter.hasNext() ? namedIter.next() : null;
+						return n;
+					}
+					
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+			
+			@Override
+			public int size() {
+				return ListVariableNode.this.size();
+			}
+		};
+	}
+	
+	/**
+	 * @return The position of the given index in {@link #indexed} plus one, or -1 if it cannot be stored there
+	 */
+	private int index(final String key) {
+		return root ? -1 : parseIndex(key);
+	}
+	
+	/**
+	 * @return The value of the given index if it only consists of digits, has no leading zeros, and is small enough to be an int, -1 otherwise
+	 */
+	private final static int parseIndex(final String key) {
+		if (key.length() == 0 || key.length() > 9 || key.charAt(0) == '0')
+			return -1;
+		int n = 0;
+		for (int i = 0; i < key.length(); i++) {
+			final char c = key.charAt(i);
+			if (c < '0' || c > '9')
+				return -1;
+			n = 10 * n + c - '0';
+		}
+		return n;
+	}
+	
+	/**
+	 * @return The smallest positive integer that is not used as an index in this list
+	 */
+	synchronized int nextFreeIndex() {
+		while (freeIndexHint <= indexed.length ? indexed[freeIndexHint - 1] != null : named.containsKey(String.valueOf(freeIndexHint)))
+			freeIndexHint++;
+		return freeIndexHint;
+	}
+	
+	/**
+	 * Finds the indices of the elements of this list that are equal to the given value as determined by {@link Comparators#compare(Object, Object)}. Nested lists are never
+	 * equal to any value.
+	 * 
+	 * @param value
+	 * @param all Whether to return all matching indices or only the first
+	 * @return The matching indices in the order of this list
+	 */
+	synchronized List<String> find(final Object value, final boolean all) {
+		ValueIndex vi = valueIndex;
+		if (vi == null) {
+			valueIndex = vi = new ValueIndex();
+			for (final Entry<String, Object> e : entrySet()) {
+				final String key = e.getKey();
+				if (key != null)
+					vi.add(key, e.getValue());
+			}
+		}
+		return vi.find(this, value, all);
+	}
+	
+	/**
+	 * Finds the indices of the elements of a list that are equal to the given value by testing every element.
+	 * 
+	 * @see #find(Object, boolean)
+	 */
+	static List<String> find(final Map<String, Object> list, final Object value, final boolean all) {
+		final List<String> r = new ArrayList<>();
+		for (final Entry<String, Object> e : list.entrySet()) {
+			if (e.getKey() != null && Relation.EQUAL.is(Comparators.compare(e.getValue(), value))) {
+				r.add(e.getKey());
+				if (!all)
+					break;
+			}
+		}
+		return r;
+	}
+	
+	/**
+	 * The elements of a list at some point in time
+	 */
+	private final static class Snapshot {
+		
+		final int version;
+		final String[] keys;
+		final Object[] values;
+		
+		Snapshot(final int version, final String[] keys, final Object[] values) {
+			this.version = version;
+			this.keys = keys;
+			this.values = values;
+		}
+		
+	}
+	
+	private synchronized Snapshot getSnapshot() {
+		Snapshot s = snapshot;
+		if (s == null) {
+			final int size = containsKey(null) ? size() - 1 : size();
+			final String[] keys = new String[size];
+			final Object[] values = new Object[size];
+			int i = 0;
+			for (final Entry<String, Object> e : entrySet()) {
+				if (e.getKey() == null)
+					continue;
+				keys[i] = e.getKey();
+				values[i] = e.getValue();
+				i++;
+			}
+			assert i == size;
+			snapshot = s = new Snapshot(version, keys, values);
+		}
+		return s;
+	}
+	
+	/**
+	 * @return The value of the element with the given index, or null if there is no such element or it is a nested list without a value
+	 */
+	@Nullable
+	private synchronized Object getElement(final String key) {
+		return getElementValue(get(key));
+	}
+	
+	/**
+	 * @return The value of an element, which is the value of the nested list itself for nested lists
+	 */
+	@Nullable
+	private final static Object getElementValue(final @Nullable Object value) {
+		if (value instanceof ListVariableNode) {
+			final ListVariableNode list = (ListVariableNode) value;
+			synchronized (list) {
+				return list.get(null);
+			}
+		}
+		return value;
+	}
+	
+	/**
+	 * Iterates over the elements of this list without copying it or looking up every element. The iterator is not affected by modifications of the list, but elements
+	 * which have been changed or removed since the iteration started are reported with their current value or skipped respectively.
+	 * 
+	 * @return An iterator over the indices and values of this list's elements. Nested lists are only included if they have a value themselves.
+	 */
+	Iterator<Pair<String, Object>> elements() {
+		final Snapshot s = getSnapshot();
+		return new Iterator<Pair<String, Object>>() {
+			private int i = 0;
+			@Nullable
+			private Pair<String, Object> next = null;
+			
+			@Override
+			public boolean hasNext() {
+				while (next == null && i < s.keys.length) {
+					final String key = s.keys[i];
+					final Object value = version == s.version ? getElementValue(s.values[i]) : getElement(key);
+					i++;
+					if (value != null)
+						next = new Pair<>(key, value);
+				}
+				return next != null;
+			}
+			
+			@Override
+			public Pair<String, Object> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				final Pair<String, Object> n = next;
+				assert n != null;
+				next = null;
+				return n;
+			}
+			
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+	
+	/**
+	 * Indexes the values of a list by their class, and numbers and strings additionally by a bucket that all values equal to them must be in as well.
+	 */
+	private final static class ValueIndex {
+		
+		private final HashMap<Class<?>, TreeSet<String>> byClass = new HashMap<>();
+		private final HashMap<Object, TreeSet<String>> buckets = new HashMap<>();
+		
+		ValueIndex() {}
+		
+		void add(final String key, final Object value) {
+			if (value instanceof Map) // nested lists are not values
+				return;
+			get(byClass, value.getClass()).add(key);
+			final Object bucket = bucket(value);
+			if (bucket != null)
+				get(buckets, bucket).add(key);
+		}
+		
+		void remove(final String key, final Object value) {
+			if (value instanceof Map)
+				return;
+			remove(byClass, value.getClass(), key);
+			final Object bucket = bucket(value);
+			if (bucket != null)
+				remove(buckets, bucket, key);
+		}
+		
+		private final static <K> TreeSet<String> get(final HashMap<K, TreeSet<String>> map, final K k) {
+			TreeSet<String> keys = map.get(k);
+			if (keys == null)
+				map.put(k, keys = new TreeSet<>(VariablesMap.exactVariableNameComparator));
+			return keys;
+		}
+		
+		private final static <K> void remove(final HashMap<K, TreeSet<String>> map, final K k, final String key) {
+			final TreeSet<String> keys = map.get(k);
+			if (keys != null && keys.remove(key) && keys.isEmpty())
+				map.remove(k);
+		}
+		
+		/**
+		 * Numbers are put into buckets of width 1 and strings into buckets that ignore case. Other values and non-finite numbers (which are never equal to anything) are not
+		 * put into any bucket.
+		 */
+		@Nullable
+		private final static Object bucket(final Object value) {
+			if (value instanceof Number) {
+				final double d = ((Number) value).doubleValue();
+				return Double.isNaN(d) || Double.isInfinite(d) ? null : Long.valueOf((long) Math.floor(d));
+			} else if (value instanceof String) {
+				final String s = (String) value;
+				final char[] cs = new char[s.length()];
+				for (int i = 0; i < cs.length; i++) // same as String.equalsIgnoreCase
+					cs[i] = Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+				return new String(cs);
+			}
+			return null;
+		}
+		
+		/**
+		 * @return Whether all values of the given class that are equal to the given value are in the value's bucket(s)
+		 */
+		@SuppressWarnings("unchecked")
+		private final static boolean usesBuckets(final Class<?> c, final Object value, final Comparator<?, ?> comparator) {
+			if (value instanceof Number)
+				return Number.class.isAssignableFrom(c) && comparator == Comparators.getComparator(Number.class, Number.class);
+			if (value instanceof String)
+				return c == String.class && comparator == Comparators.getComparator(String.class, String.class);
+			return false;
+		}
+		
+		List<String> find(final ListVariableNode list, final Object value, final boolean all) {
+			final TreeSet<String> r = new TreeSet<>(VariablesMap.exactVariableNameComparator);
+			for (final Entry<Class<?>, TreeSet<String>> e : byClass.entrySet()) {
+				@SuppressWarnings("null")
+				final Comparator<?, ?> comparator = Comparators.getComparator(e.getKey(), value.getClass());
+				if (comparator == null || usesBuckets(e.getKey(), value, comparator))
+					continue;
+				for (final String key : e.getValue()) {
+					if (Relation.EQUAL.is(Comparators.compare(list.get(key), value))) {
+						r.add(key);
+						if (!all)
+							break;
+					}
+				}
+			}
+			final Object bucket = bucket(value);
+			if (bucket != null) {
+				if (value instanceof Number) {
+					final double d = ((Number) value).doubleValue();
+					final long low = (long) Math.floor(d - Skript.EPSILON), high = (long) Math.floor(d + Skript.EPSILON);
+					for (long b = low; b <= high; b++)
+						find(list, value, buckets.get(b), r);
+				} else {
+					find(list, value, buckets.get(bucket), r);
+				}
+			}
+			if (!all && r.size() > 1)
+				return Collections.singletonList(r.first());
+			return new ArrayList<>(r);
+		}
+		
+		private final static void find(final ListVariableNode list, final Object value, final @Nullable TreeSet<String> keys, final TreeSet<String> r) {
+			if (keys == null)
+				return;
+			for (final String key : keys) {
+				if (Relation.EQUAL.is(Comparators.compare(list.get(key), value)))
+					r.add(key);
+			}
+		}
+		
+	}
+	
+}
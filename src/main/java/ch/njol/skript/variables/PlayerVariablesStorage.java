@@ -0,0 +1,551 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.bukkitutil.PlayerUtils;
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.skript.util.FileUtils;
+import ch.njol.skript.util.Task;
+import ch.njol.skript.variables.SerializedVariable.Value;
+
+/**
+ * Stores the variables of each player in a separate file, and only keeps them in memory while they are needed: a player's variables are loaded in the background when
+ * they log in and removed from memory a while after they quit. Variables of offline players are loaded when they are used (e.g. by a leaderboard) and removed from memory
+ * again if they are not used for a while.
+ * <p>
+ * Which variables are stored here is defined by the entry 'lists', a comma separated list of list variables with <tt>%player%</tt> as one of their parts, e.g.
+ * <tt>stats::%player%, homes::%player%</tt>. The part in place of <tt>%player%</tt> - usually a player's uuid or name - is called the key of the variable, and all
+ * variables with the same key are loaded and unloaded together. Only keys consisting of lower case letters, digits, '-' and '_' are accepted.
+ * <p>
+ * Lists which contain the variables of several players, e.g. <tt>{stats::*}</tt> in the example above, only contain the variables of players that are currently loaded.
+ */
+public class PlayerVariablesStorage extends VariablesStorage {
+	
+	private final static String PLAYER = "%player%";
+	
+	/**
+	 * How long the variables of an offline player are kept in memory after they were last used, in milliseconds.
+	 */
+	private final static long UNLOAD_DELAY = 60 * 1000;
+	
+	/**
+	 * In ticks
+	 */
+	private final static int UNLOAD_INTERVAL = 20 * 20, SAVE_INTERVAL = 30 * 20;
+	
+	/**
+	 * The parts of the 'lists' entry before and after <tt>%player%</tt>
+	 */
+	private final List<String[]> lists = new ArrayList<>();
+	
+	@Nullable
+	private File folder;
+	
+	/**
+	 * The saved variables of a single key
+	 */
+	private final static class Partition {
+		
+		final TreeMap<String, Value> values;
+		/**
+		 * Number of changes since the partition was last written to its file
+		 */
+		int changes = 0;
+		
+		Partition(final TreeMap<String, Value> values) {
+			this.values = values;
+		}
+		
+	}
+	
+	/**
+	 * Partitions which have been changed and not yet been written to their file. Must be synchronized on, but not while reading or writing files, as variables are
+	 * loaded from here.
+	 */
+	private final Map<String, Partition> partitions = new HashMap<>();
+	
+	/**
+	 * Number of times a partition has been written to its file. Must be accessed while synchronized on {@link #partitions}.
+	 */
+	private int writes = 0;
+	
+	private final Object saveLock = new Object();
+	
+	/**
+	 * The keys whose variables are currently in memory, mapped to when they have last been used
+	 */
+	private final ConcurrentHashMap<String, long[]> loaded = new ConcurrentHashMap<>();
+	
+	/**
+	 * The keys of all online players, i.e. their uuids and names
+	 */
+	private final Set<String> online = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	
+	@Nullable
+	private Task unloadTask, saveTask;
+	
+	PlayerVariablesStorage(final String name) {
+		super(name);
+	}
+	
+	@Override
+	protected boolean hasPattern() {
+		return false;
+	}
+	
+	@Override
+	protected boolean load_i(final SectionNode n) {
+		final String lists = getValue(n, "lists");
+		final String folder = getValue(n, "folder");
+		if (lists == null || folder == null)
+			return false;
+		for (final String list : lists.split("\\s*,\\s*")) {
+			final String l = "" + list.trim().toLowerCase(Locale.ENGLISH);
+			final int i = l.indexOf(PLAYER);
+			if (i == -1 || i != l.lastIndexOf(PLAYER) || i != 0 && !l.startsWith(Variable.SEPARATOR, i - Variable.SEPARATOR.length())
+					|| i + PLAYER.length() != l.length() && !l.startsWith(Variable.SEPARATOR, i + PLAYER.length()) || l.endsWith("*")) {
+				Skript.error("'" + list + "' is not a valid list for the database '" + databaseName + "': lists must contain '" + PLAYER + "' exactly once as one of their parts, e.g. 'stats" + Variable.SEPARATOR + PLAYER + "'");
+				return false;
+			}
+			this.lists.add(new String[] {l.substring(0, i), l.substring(i + PLAYER.length())});
+		}
+		final File f = new File(folder).getAbsoluteFile();
+		if (!f.isDirectory() && !f.mkdirs()) {
+			Skript.error("Cannot create the folder '" + f.getPath() + "' for the database '" + databaseName + "'");
+			return false;
+		}
+		this.folder = f;
+		
+		Bukkit.getPluginManager().registerEvents(new Listener() {
+			@EventHandler(priority = EventPriority.MONITOR)
+			public void onPreLogin(final AsyncPlayerPreLoginEvent e) {
+				if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED)
+					return;
+				preload("" + e.getUniqueId().toString());
+				preload("" + e.getName().toLowerCase(Locale.ENGLISH));
+			}
+			
+			@EventHandler(priority = EventPriority.LOWEST)
+			public void onJoin(final PlayerJoinEvent e) {
+				online.addAll(getKeys(e.getPlayer()));
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR)
+			public void onQuit(final PlayerQuitEvent e) {
+				for (final String key : getKeys(e.getPlayer())) {
+					online.remove(key);
+					used(key);
+				}
+			}
+		}, Skript.getInstance());
+		for (final Player p : PlayerUtils.getOnlinePlayers()) {
+			for (final String key : getKeys(p)) {
+				online.add(key);
+				preload(key);
+			}
+		}
+		
+		unloadTask = new Task(Skript.getInstance(), UNLOAD_INTERVAL, UNLOAD_INTERVAL) {
+			@Override
+			public void run() {
+				unloadUnused();
+			}
+		};
+		saveTask = new Task(Skript.getInstance(), SAVE_INTERVAL, SAVE_INTERVAL, true) {
+			@Override
+			public void run() {
+				saveChanges();
+			}
+		};
+		return true;
+	}
+	
+	final static List<String> getKeys(final Player p) {
+		final List<String> keys = new ArrayList<>(2);
+		keys.add("" + p.getUniqueId().toString());
+		keys.add("" + p.getName().toLowerCase(Locale.ENGLISH));
+		return keys;
+	}
+	
+	/**
+	 * @param name A variable's name
+	 * @return The key of the variable, or null if it is not stored here
+	 */
+	@Nullable
+	final String getKey(final String name) {
+		for (final String[] list : lists) {
+			final String prefix = list[0], suffix = list[1];
+			if (!name.startsWith(prefix))
+				continue;
+			int end = name.indexOf(Variable.SEPARATOR, prefix.length());
+			if (end == -1)
+				end = name.length();
+			if (end == prefix.length() || !name.startsWith(suffix, end))
+				continue;
+			final int rest = end + suffix.length();
+			if (rest != name.length() && !name.startsWith(Variable.SEPARATOR, rest))
+				continue;
+			if (isValidKey(name, prefix.length(), end))
+				return name.substring(prefix.length(), end);
+		}
+		return null;
+	}
+	
+	private final static boolean isValidKey(final String s, final int start, final int end) {
+		for (int i = start; i < end; i++) {
+			final char c = s.charAt(i);
+			if (!('a' <= c && c <= 'z' || '0' <= c && c <= '9' || c == '-' || c == '_'))
+				return false;
+		}
+		return true;
+	}
+	
+	@Override
+	boolean accept(final @Nullable String var) {
+		return var != null && getKey(var) != null;
+	}
+	
+	/**
+	 * Makes sure that the variables of the given variable's key are in memory before the variable is used. Loads them on the current thread if they are not.
+	 * 
+	 * @param name The name of a global variable that is about to be read or changed
+	 */
+	final void use(final String name) {
+		final String key = getKey(name);
+		if (key == null)
+			return;
+		synchronized (this) {
+			if (used(key))
+				return;
+		}
+		load(key, read(key));
+	}
+	
+	/**
+	 * Must be called while synchronized on this storage, so that the variables cannot be unloaded in the meantime.
+	 * 
+	 * @return Whether the variables of the given key are loaded
+	 */
+	private boolean used(final String key) {
+		final long[] lastUsed = loaded.get(key);
+		if (lastUsed == null)
+			return false;
+		lastUsed[0] = System.currentTimeMillis();
+		return true;
+	}
+	
+	/**
+	 * Reads the variables of the given key on the current thread and puts them into memory on the main thread.
+	 */
+	private void preload(final String key) {
+		if (loaded.containsKey(key))
+			return;
+		final TreeMap<String, Value> values = read(key);
+		Bukkit.getScheduler().runTask(Skript.getInstance(), new Runnable() {
+			@Override
+			public void run() {
+				load(key, values);
+			}
+		});
+	}
+	
+	/**
+	 * Puts the given saved variables into memory, unless they have been loaded already.
+	 */
+	private synchronized void load(final String key, final TreeMap<String, Value> values) {
+		if (used(key))
+			return;
+		final Map<String, Object> vars = new HashMap<>(values.size() * 4 / 3 + 1);
+		for (final Entry<String, Value> v : values.entrySet()) {
+			final Object o = Classes.deserialize(v.getValue().type, v.getValue().data);
+			if (o == null) {
+				Skript.error("Cannot load the variable {" + v.getKey() + "} from the database '" + databaseName + "', because it cannot be loaded as " + v.getValue().type);
+				continue;
+			}
+			vars.put(v.getKey(), o);
+		}
+		Variables.putLoadedVariables(vars);
+		loaded.put(key, new long[] {System.currentTimeMillis()});
+	}
+	
+	/**
+	 * Removes the variables of offline players from memory which have not been used recently. Variables are not deleted from this storage.
+	 */
+	final void unloadUnused() {
+		final long now = System.currentTimeMillis();
+		final Iterator<Entry<String, long[]>> iter = loaded.entrySet().iterator();
+		while (iter.hasNext()) {
+			final Entry<String, long[]> e = iter.next();
+			if (online.contains(e.getKey()) || now - e.getValue()[0] < UNLOAD_DELAY)
+				continue;
+			final List<String> roots = new ArrayList<>(lists.size());
+			for (final String[] list : lists)
+				roots.add(list[0] + e.getKey() + list[1]);
+			synchronized (this) {
+				// check again as the variables may have been used in the meantime
+				if (online.contains(e.getKey()) || now - e.getValue()[0] < UNLOAD_DELAY)
+					continue;
+				iter.remove();
+				Variables.unloadVariables(roots);
+			}
+		}
+	}
+	
+	/**
+	 * @return A copy of the saved variables of the given key
+	 */
+	private TreeMap<String, Value> read(final String key) {
+		while (true) {
+			final int writes;
+			synchronized (partitions) {
+				final Partition p = partitions.get(key);
+				if (p != null)
+					return new TreeMap<>(p.values);
+				writes = this.writes;
+			}
+			// the file is read without holding the lock to not block saving variables in the meantime
+			final TreeMap<String, Value> values = readFile(key);
+			synchronized (partitions) {
+				final Partition p = partitions.get(key);
+				if (p != null)
+					return new TreeMap<>(p.values);
+				if (writes == this.writes) // otherwise the file might have been replaced while it was read
+					return values;
+			}
+		}
+	}
+	
+	private File getPartitionFile(final String key, final boolean temp) {
+		return new File(folder, key + (temp ? ".csv.temp" : ".csv"));
+	}
+	
+	private TreeMap<String, Value> readFile(final String key) {
+		final TreeMap<String, Value> values = new TreeMap<>(VariablesMap.exactVariableNameComparator);
+		final File f = getPartitionFile(key, false);
+		if (!f.exists())
+			return values;
+		boolean error = false;
+		BufferedReader r = null;
+		try {
+			r = new BufferedReader(new InputStreamReader(new FileInputStream(f), FlatFileStorage.UTF_8));
+			String line;
+			while ((line = r.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+				final String[] split = FlatFileStorage.splitCSV(line);
+				if (split == null || split.length != 3) {
+					Skript.error("Invalid line in " + f.getName() + " of the database '" + databaseName + "': " + line);
+					error = true;
+					continue;
+				}
+				values.put(split[0], new Value(split[1], FlatFileStorage.decode(split[2])));
+			}
+		} catch (final IOException e) {
+			Skript.error("Cannot read " + f.getName() + " of the database '" + databaseName + "': " + ExceptionUtils.toString(e));
+			error = true;
+		} finally {
+			if (r != null) {
+				try {
+					r.close();
+				} catch (final IOException e) {}
+			}
+		}
+		if (error) {
+			try {
+				final File backup = FileUtils.backup(f);
+				Skript.info("Created a backup of " + f.getName() + " as " + backup.getName());
+			} catch (final IOException e) {
+				Skript.error("Could not backup " + f.getName() + ": " + ExceptionUtils.toString(e));
+			}
+		}
+		return values;
+	}
+	
+	/**
+	 * Writes all changed partitions to their files, and forgets the saved variables of all partitions that have not been changed in the meantime.
+	 */
+	final void saveChanges() {
+		synchronized (saveLock) {
+			saveChanges_i();
+		}
+	}
+	
+	private void saveChanges_i() {
+		final Map<String, TreeMap<String, Value>> changed = new HashMap<>();
+		final Map<String, Integer> changes = new HashMap<>();
+		synchronized (partitions) {
+			final Iterator<Entry<String, Partition>> iter = partitions.entrySet().iterator();
+			while (iter.hasNext()) {
+				final Entry<String, Partition> e = iter.next();
+				if (e.getValue().changes == 0) {
+					iter.remove();
+				} else {
+					changed.put(e.getKey(), new TreeMap<>(e.getValue().values));
+					changes.put(e.getKey(), e.getValue().changes);
+				}
+			}
+		}
+		for (final Entry<String, TreeMap<String, Value>> e : changed.entrySet()) {
+			final boolean saved = writeFile(e.getKey(), e.getValue());
+			synchronized (partitions) {
+				final Partition p = partitions.get(e.getKey());
+				assert p != null;
+				if (saved) {
+					p.changes -= changes.get(e.getKey());
+					writes++;
+				}
+				if (p.changes == 0)
+					partitions.remove(e.getKey());
+			}
+		}
+	}
+	
+	private boolean writeFile(final String key, final TreeMap<String, Value> values) {
+		final File f = getPartitionFile(key, false);
+		if (values.isEmpty())
+			return !f.exists() || f.delete();
+		final File temp = getPartitionFile(key, true);
+		PrintWriter pw = null;
+		try {
+			pw = new PrintWriter(temp, "UTF-8");
+			for (final Entry<String, Value> v : values.entrySet())
+				FlatFileStorage.writeCSV(pw, v.getKey(), v.getValue().type, FlatFileStorage.encode(v.getValue().data));
+			pw.close();
+			pw = null;
+			FileUtils.move(temp, f, true);
+			return true;
+		} catch (final IOException e) {
+			Skript.error("Cannot save " + f.getName() + " of the database '" + databaseName + "': " + ExceptionUtils.toString(e));
+			return false;
+		} finally {
+			if (pw != null)
+				pw.close();
+		}
+	}
+	
+	@Override
+	protected boolean save(final String name, final @Nullable String type, final @Nullable byte[] value) {
+		final String key = getKey(name);
+		if (key == null) {
+			assert false : name;
+			return false;
+		}
+		while (true) {
+			final int writes;
+			synchronized (partitions) {
+				final Partition p = partitions.get(key);
+				if (p != null) {
+					change(p, name, type, value);
+					return true;
+				}
+				writes = this.writes;
+			}
+			// like in read(), the file is read without holding the lock
+			final TreeMap<String, Value> values = readFile(key);
+			synchronized (partitions) {
+				Partition p = partitions.get(key);
+				if (p == null) {
+					if (writes != this.writes) // the file might have been replaced while it was read
+						continue;
+					partitions.put(key, p = new Partition(values));
+				}
+				change(p, name, type, value);
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Must be called while synchronized on {@link #partitions}.
+	 */
+	private static void change(final Partition p, final String name, final @Nullable String type, final @Nullable byte[] value) {
+		if (type == null || value == null)
+			p.values.remove(name);
+		else
+			p.values.put(name, new Value(type, value));
+		p.changes++;
+	}
+	
+	@Override
+	protected void allLoaded() {}
+	
+	@Override
+	protected boolean requiresFile() {
+		return false;
+	}
+	
+	@Override
+	protected File getFile(final String file) {
+		return new File(file);
+	}
+	
+	@Override
+	protected boolean connect() {
+		return true;
+	}
+	
+	@Override
+	protected void disconnect() {}
+	
+	@Override
+	public void close() {
+		final Task ut = unloadTask, st = saveTask;
+		if (ut != null)
+			ut.cancel();
+		if (st != null)
+			st.cancel();
+		super.close();
+		saveChanges();
+	}
+	
+}
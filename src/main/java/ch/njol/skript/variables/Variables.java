@@ -20,19 +20,19 @@
 package ch.njol.skript.variables;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeMap;
 import java.util.WeakHashMap;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.regex.Pattern;
 
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.serialization.ConfigurationSerializable;
@@ -52,11 +52,13 @@ import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.lang.Variable;
 import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.registrations.Converters;
+import ch.njol.skript.util.Task;
 import ch.njol.skript.variables.DatabaseStorage.Type;
 import ch.njol.skript.variables.SerializedVariable.Value;
 import ch.njol.util.Closeable;
 import ch.njol.util.Kleenean;
 import ch.njol.util.NonNullPair;
+import ch.njol.util.Pair;
 import ch.njol.util.SynchronizedReference;
 import ch.njol.yggdrasil.Yggdrasil;
 
@@ -105,9 +107,13 @@ public abstract class Variables {
 	
 	static List<VariablesStorage> storages = new ArrayList<VariablesStorage>();
 	
+	/**
+	 * Storages which only keep some of their variables in memory
+	 */
+	private static List<PlayerVariablesStorage> playerStorages = new ArrayList<>();
+	
 	public static boolean load() {
-		assert variables.treeMap.isEmpty();
-		assert variables.hashMap.isEmpty();
+		assert variables.root.isEmpty();
 		assert storages.isEmpty();
 		
 		final Config c = SkriptConfig.getConfig();
@@ -167,6 +173,8 @@ public abstract class Variables {
 						s = new DatabaseStorage(name, Type.MYSQL);
 					} else if (type.equalsIgnoreCase("sqlite")) {
 						s = new DatabaseStorage(name, Type.SQLITE);
+					} else if (type.equalsIgnoreCase("per player")) {
+						s = new PlayerVariablesStorage(name);
 					} else {
 						if (!type.equalsIgnoreCase("disabled") && !type.equalsIgnoreCase("none")) {
 							Skript.error("Invalid database type '" + type + "'");
@@ -185,10 +193,13 @@ public abstract class Variables {
 					if (Skript.logVeryHigh())
 						Skript.info("Loading database '" + node.getKey() + "'...");
 					
-					if (s.load(n))
+					if (s.load(n)) {
 						storages.add(s);
-					else
+						if (s instanceof PlayerVariablesStorage)
+							playerStorages.add((PlayerVariablesStorage) s);
+					} else {
 						successful = false;
+					}
 					
 					final int d;
 					synchronized (tempVars) {
@@ -210,6 +221,8 @@ public abstract class Variables {
 				Skript.error("No databases to store variables are defined. Please enable at least the default database, even if you don't use variables at all.");
 				return false;
 			}
+			
+			loadColdVariables();
 		} finally {
 			// make sure to put the loaded variables into the variables map
 			final int n = onStoragesLoaded();
@@ -224,12 +237,57 @@ public abstract class Variables {
 		return true;
 	}
 	
-	@SuppressWarnings("null")
-	private final static Pattern variableNameSplitPattern = Pattern.compile(Pattern.quote(Variable.SEPARATOR));
+	private final static void loadColdVariables() {
+		final ColdVariables cold = ColdVariables.load();
+		if (cold == null)
+			return;
+		variablesLock.writeLock().lock();
+		try {
+			variables.cold = cold;
+		} finally {
+			variablesLock.writeLock().unlock();
+		}
+		Skript.closeOnDisable(cold);
+		new Task(Skript.getInstance(), 1, 1) {
+			@Override
+			public void run() {
+				if (!cold.isSweepDue())
+					return;
+				variablesLock.writeLock().lock();
+				try {
+					cold.sweep(variables.root);
+				} finally {
+					variablesLock.writeLock().unlock();
+				}
+			}
+		};
+	}
 	
+	/**
+	 * Splits a variable name at every {@link Variable#SEPARATOR}. The result is the same as splitting it with a regex, i.e. trailing empty parts are removed.
+	 * 
+	 * @param name
+	 * @return The parts of the name
+	 */
 	@SuppressWarnings("null")
 	public final static String[] splitVariableName(final String name) {
-		return variableNameSplitPattern.split(name);
+		final String sep = Variable.SEPARATOR;
+		int count = 1;
+		for (int i = name.indexOf(sep); i != -1; i = name.indexOf(sep, i + sep.length()))
+			count++;
+		if (count == 1)
+			return new String[] {name};
+		final String[] split = new String[count];
+		int start = 0;
+		for (int i = 0; i < count - 1; i++) {
+			final int end = name.indexOf(sep, start);
+			split[i] = name.substring(start, end);
+			start = end + sep.length();
+		}
+		split[count - 1] = name.substring(start);
+		while (count > 0 && split[count - 1].isEmpty())
+			count--;
+		return count == split.length ? split : Arrays.copyOf(split, count);
 	}
 	
 	private final static ReadWriteLock variablesLock = new ReentrantReadWriteLock(true);
@@ -238,23 +296,28 @@ public abstract class Variables {
 	 */
 	private final static VariablesMap variables = new VariablesMap();
 	/**
-	 * Not accessed concurrently
+	 * Must be synchronized on. The maps themselves are only accessed by the thread executing the event.
 	 */
 	private final static WeakHashMap<Event, VariablesMap> localVariables = new WeakHashMap<Event, VariablesMap>();
 	
 	/**
 	 * Remember to lock with {@link #getReadLock()} and to not make any changes!
+	 * 
+	 * @return The variables tree, with list variables as nested maps
 	 */
-	static TreeMap<String, Object> getVariables() {
-		return variables.treeMap;
+	static Map<String, Object> getVariables() {
+		return variables.root;
 	}
 	
 	/**
 	 * Remember to lock with {@link #getReadLock()}!
+	 * 
+	 * @return A new map of all variables by their full names
 	 */
-	@SuppressWarnings("null")
 	static Map<String, Object> getVariablesHashMap() {
-		return Collections.unmodifiableMap(variables.hashMap);
+		final Map<String, Object> all = new HashMap<>();
+		variables.getAll(all);
+		return all;
 	}
 	
 	@SuppressWarnings("null")
@@ -273,11 +336,15 @@ public abstract class Variables {
 	@Nullable
 	public final static Object getVariable(final String name, final @Nullable Event e, final boolean local) {
 		if (local) {
-			final VariablesMap map = localVariables.get(e);
+			final VariablesMap map;
+			synchronized (localVariables) {
+				map = localVariables.get(e);
+			}
 			if (map == null)
 				return null;
 			return map.getVariable(name);
 		} else {
+			loadPlayerVariables(name);
 			try {
 				variablesLock.readLock().lock();
 				return variables.getVariable(name);
@@ -306,15 +373,63 @@ public abstract class Variables {
 		}
 		if (local) {
 			assert e != null : name;
-			VariablesMap map = localVariables.get(e);
-			if (map == null)
-				localVariables.put(e, map = new VariablesMap());
+			VariablesMap map;
+			synchronized (localVariables) {
+				map = localVariables.get(e);
+				if (map == null)
+					localVariables.put(e, map = new VariablesMap());
+			}
 			map.setVariable(name, value);
 		} else {
+			loadPlayerVariables(name);
 			setVariable(name, value);
 		}
 	}
 	
+	/**
+	 * Makes sure that the given global variable is in memory if it is stored in a storage that doesn't keep all variables in memory.
+	 */
+	private final static void loadPlayerVariables(final String name) {
+		if (playerStorages.isEmpty())
+			return;
+		for (final PlayerVariablesStorage s : playerStorages)
+			s.use(name);
+	}
+	
+	/**
+	 * Puts variables into memory that a storage has loaded after Skript has started, without saving them again. Variables which are already set are not overwritten.
+	 * 
+	 * @param vars The variables' names and values
+	 */
+	final static void putLoadedVariables(final Map<String, Object> vars) {
+		variablesLock.writeLock().lock();
+		try {
+			for (final Entry<String, Object> v : vars.entrySet()) {
+				if (variables.getVariable(v.getKey()) == null)
+					variables.setVariable(v.getKey(), v.getValue());
+			}
+		} finally {
+			variablesLock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Removes variables from memory without deleting them from their storage.
+	 * 
+	 * @param lists Names of list variables which will be removed including their value and all elements
+	 */
+	final static void unloadVariables(final Collection<String> lists) {
+		variablesLock.writeLock().lock();
+		try {
+			for (final String list : lists) {
+				variables.setVariable(list + Variable.SEPARATOR + "*", null);
+				variables.setVariable(list, null);
+			}
+		} finally {
+			variablesLock.writeLock().unlock();
+		}
+	}
+	
 	final static void setVariable(final String name, @Nullable final Object value) {
 		try {
 			variablesLock.writeLock().lock();
@@ -325,6 +440,71 @@ public abstract class Variables {
 		saveVariableChange(name, value);
 	}
 	
+	/**
+	 * Finds the smallest positive integer that is not used as an index in a list variable, i.e. the index that <tt>add ... to {list::*}</tt> uses.
+	 *
+	 * @param list The list variable's contents as returned by {@link #getVariable(String, Event, boolean)}
+	 * @param local Whether the list is a local variable
+	 * @return The smallest free index
+	 */
+	public final static int getFreeListIndex(final Map<String, Object> list, final boolean local) {
+		if (!(list instanceof ListVariableNode)) {
+			int i = 1;
+			while (list.containsKey("" + i))
+				i++;
+			return i;
+		}
+		if (local)
+			return ((ListVariableNode) list).nextFreeIndex();
+		try {
+			variablesLock.readLock().lock();
+			return ((ListVariableNode) list).nextFreeIndex();
+		} finally {
+			variablesLock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Iterates over the elements of a list variable without looking up every element by its full name. Elements that are changed or removed during the iteration are
+	 * returned with their new value or skipped respectively, like when looking them up one by one.
+	 * 
+	 * @param list The list variable's contents as returned by {@link #getVariable(String, Event, boolean)}
+	 * @return An iterator over the indices and values of the list's elements
+	 */
+	public final static Iterator<Pair<String, Object>> getListElements(final Map<String, Object> list) {
+		if (list instanceof ListVariableNode)
+			return ((ListVariableNode) list).elements();
+		final List<Pair<String, Object>> elements = new ArrayList<>();
+		for (final Entry<String, Object> e : list.entrySet()) {
+			final Object value = e.getValue() instanceof Map ? ((Map<?, ?>) e.getValue()).get(null) : e.getValue();
+			if (e.getKey() != null && value != null)
+				elements.add(new Pair<>(e.getKey(), value));
+		}
+		return elements.iterator();
+	}
+	
+	/**
+	 * Finds the indices of the elements of a list variable which are equal to the given value as determined by {@link ch.njol.skript.registrations.Comparators#compare(Object, Object)}.
+	 *
+	 * @param list The list variable's contents as returned by {@link #getVariable(String, Event, boolean)}
+	 * @param value
+	 * @param all Whether to find all matching indices or only the first one
+	 * @param local Whether the list is a local variable
+	 * @return The indices of the matching elements, in the list's order
+	 */
+	public final static List<String> findListIndices(final Map<String, Object> list, final Object value, final boolean all, final boolean local) {
+		if (!(list instanceof ListVariableNode))
+			return ListVariableNode.find(list, value, all);
+		if (local)
+			return ((ListVariableNode) list).find(value, all);
+		try {
+			variablesLock.readLock().lock();
+			return ((ListVariableNode) list).find(value, all);
+		} finally {
+			variablesLock.readLock().unlock();
+		}
+	}
+	
 	/**
 	 * Stores loaded variables while variable storages are loaded.
 	 * <p>
@@ -475,7 +655,7 @@ public abstract class Variables {
 	public static int numVariables() {
 		try {
 			variablesLock.readLock().lock();
-			return variables.hashMap.size();
+			return variables.size();
 		} finally {
 			variablesLock.readLock().unlock();
 		}
@@ -20,19 +20,22 @@
 package ch.njol.skript.variables;
 
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeMap;
 
 import org.eclipse.jdt.annotation.Nullable;
 
 import ch.njol.skript.lang.Variable;
-import ch.njol.skript.util.Utils;
 import ch.njol.util.StringUtils;
 
 final class VariablesMap {
 	
+	/**
+	 * Compares variable names like strings, except that sequences of digits are compared by their numerical value, e.g. "a::2" &lt; "a::10".
+	 * <p>
+	 * Digit sequences are compared in place by their length and then character by character (ignoring leading zeros), thus this comparator neither allocates objects nor
+	 * parses numbers, and works for numbers of any size.
+	 */
 	final static Comparator<String> variableNameComparator = new Comparator<String>() {
 		@Override
 		public int compare(final @Nullable String s1, final @Nullable String s2) {
@@ -44,12 +47,11 @@ final class VariablesMap {
 			while (i < s1.length() && j < s2.length()) {
 				final char c1 = s1.charAt(i), c2 = s2.charAt(j);
 				if ('0' <= c1 && c1 <= '9' && '0' <= c2 && c2 <= '9') { // TODO negative numbers? what about {blah-%number%}? // '-' < '0'
-					final int i2 = StringUtils.findLastDigit(s1, i), j2 = StringUtils.findLastDigit(s2, j);
-					final long n1 = Utils.parseLong("" + s1.substring(i, i2)), n2 = Utils.parseLong("" + s2.substring(j, j2));
-					if (n1 > n2)
-						return 1;
-					if (n1 < n2)
-						return -1;
+					final int i1 = skipZeros(s1, i), j1 = skipZeros(s2, j);
+					final int i2 = StringUtils.findLastDigit(s1, i1), j2 = StringUtils.findLastDigit(s2, j1);
+					final int r = compareDigits(s1, i1, i2, s2, j1, j2);
+					if (r != 0)
+						return r;
 					i = i2;
 					j = j2;
 					continue;
@@ -70,8 +72,58 @@ final class VariablesMap {
 		}
 	};
 	
-	final HashMap<String, Object> hashMap = new HashMap<String, Object>();
-	final TreeMap<String, Object> treeMap = new TreeMap<String, Object>();
+	/**
+	 * Orders variable names like {@link #variableNameComparator}, but only considers names equal if they are exactly equal, as e.g. <tt>{a::01}</tt> and <tt>{a::1}</tt>
+	 * are different variables. Names that only differ in leading zeros are ordered like strings, e.g. "a::01" &lt; "a::1".
+	 */
+	final static Comparator<String> exactVariableNameComparator = new Comparator<String>() {
+		@Override
+		public int compare(final @Nullable String s1, final @Nullable String s2) {
+			final int r = variableNameComparator.compare(s1, s2);
+			if (r != 0 || s1 == null || s2 == null)
+				return r;
+			return s1.compareTo(s2);
+		}
+	};
+	
+	/**
+	 * @return The index of the first character at or after <tt>start</tt> that is not a '0'
+	 */
+	private final static int skipZeros(final String s, final int start) {
+		int i = start;
+		while (i < s.length() && s.charAt(i) == '0')
+			i++;
+		return i;
+	}
+	
+	/**
+	 * Compares the numerical value of two sequences of digits without leading zeros.
+	 * 
+	 * @return A negative number, zero, or a positive number if the first number is smaller than, equal to, or larger than the second respectively.
+	 */
+	private final static int compareDigits(final String s1, final int start1, final int end1, final String s2, final int start2, final int end2) {
+		final int l1 = end1 - start1, l2 = end2 - start2;
+		if (l1 != l2)
+			return l1 > l2 ? 1 : -1;
+		for (int k = 0; k < l1; k++) {
+			final char c1 = s1.charAt(start1 + k), c2 = s2.charAt(start2 + k);
+			if (c1 != c2)
+				return c1 > c2 ? 1 : -1;
+		}
+		return 0;
+	}
+	
+	/**
+	 * The variables tree, in which every list variable is a {@link ListVariableNode}. This is the only place where variables are stored, i.e. there is no map from full
+	 * variable names to values, as it would store every variable's name a second time.
+	 */
+	final ListVariableNode root = new ListVariableNode(true);
+	
+	/**
+	 * The cold variables of this map, or null if all variables are kept on the heap. Only set for the global variables while they are loaded.
+	 */
+	@Nullable
+	ColdVariables cold = null;
 	
 	/**
 	 * Returns the internal value of the requested variable.
@@ -81,32 +133,71 @@ final class VariablesMap {
 	 * @param name
 	 * @return an Object for a normal Variable or a Map<String, Object> for a list variable, or null if the variable is not set.
 	 */
-	@SuppressWarnings("unchecked")
 	@Nullable
 	final Object getVariable(final String name) {
-		if (!name.endsWith("*")) {
-			return hashMap.get(name);
-		} else {
-			final String[] split = Variables.splitVariableName(name);
-			Map<String, Object> current = treeMap;
-			for (int i = 0; i < split.length; i++) {
-				final String n = split[i];
-				if (n.equals("*")) {
-					assert i == split.length - 1;
-					return current;
+		final boolean list = name.endsWith("*");
+		final String[] split = Variables.splitVariableName(name);
+		ListVariableNode parent = root;
+		for (int i = 0; i < split.length; i++) {
+			final String n = split[i];
+			if (list && n.equals("*")) {
+				assert i == split.length - 1;
+				final ColdVariables cold = this.cold;
+				if (cold != null) {
+					if (parent.hasCold)
+						unswept(split, i);
+					cold.access(parent);
 				}
-				final Object o = current.get(n);
-				if (o == null)
-					return null;
-				if (o instanceof Map) {
-					current = (Map<String, Object>) o;
-					assert i != split.length - 1;
-					continue;
-				} else {
+				return parent;
+			}
+			final Object current = parent.get(n);
+			if (current == null)
+				return null;
+			if (i == split.length - 1) {
+				if (list)
 					return null;
-				}
+				if (current instanceof ListVariableNode)
+					return get(split, i + 1, (ListVariableNode) current, null);
+				return get(split, i, parent, n);
 			}
-			return null;
+			if (!(current instanceof ListVariableNode))
+				return null;
+			parent = (ListVariableNode) current;
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets an element of a list, making it hot if it is {@link ColdVariables cold}.
+	 * 
+	 * @param split The split name of the variable that is read
+	 * @param depth The number of parts of the name which lead to the list
+	 * @param list
+	 * @param key The element's index, or null for the list's own value
+	 */
+	@Nullable
+	private Object get(final String[] split, final int depth, final ListVariableNode list, final @Nullable String key) {
+		final Object value = list.get(key);
+		final ColdVariables cold = this.cold;
+		if (cold == null || value == null)
+			return value;
+		if (value instanceof ColdVariables.ColdValue)
+			unswept(split, depth);
+		return cold.access(list, key, value);
+	}
+	
+	/**
+	 * Marks the lists leading to a variable as changed, so that the variable is made cold again later.
+	 */
+	private void unswept(final String[] split, final int depth) {
+		ListVariableNode list = root;
+		list.swept = false;
+		for (int i = 0; i < depth; i++) {
+			final Object o = list.get(split[i]);
+			if (!(o instanceof ListVariableNode))
+				return;
+			list = (ListVariableNode) o;
+			list.swept = false;
 		}
 	}
 	
@@ -116,61 +207,53 @@ final class VariablesMap {
 	 * @param name The variable's name. Can be a "list variable::*" (<tt>value</tt> must be <tt>null</tt> in this case)
 	 * @param value The variable's value. Use <tt>null</tt> to delete the variable.
 	 */
-	@SuppressWarnings("unchecked")
 	final void setVariable(final String name, final @Nullable Object value) {
-		if (!name.endsWith("*")) {
-			if (value == null)
-				hashMap.remove(name);
-			else
-				hashMap.put(name, value);
-		}
 		final String[] split = Variables.splitVariableName(name);
-		TreeMap<String, Object> parent = treeMap;
+		ListVariableNode parent = root;
 		for (int i = 0; i < split.length; i++) {
+			parent.swept = false;
 			final String n = split[i];
-			Object current = parent.get(n);
+			final Object current = parent.get(n);
 			if (current == null) {
 				if (i == split.length - 1) {
 					if (value != null)
 						parent.put(n, value);
 					break;
 				} else if (value != null) {
-					parent.put(n, current = new TreeMap<String, Object>(variableNameComparator));
-					parent = (TreeMap<String, Object>) current;
+					final ListVariableNode c = new ListVariableNode();
+					parent.put(n, c);
+					parent = c;
 					continue;
 				} else {
 					break;
 				}
-			} else if (current instanceof TreeMap) {
+			} else if (current instanceof ListVariableNode) {
+				final ListVariableNode c = (ListVariableNode) current;
 				if (i == split.length - 1) {
-					if (value == null)
-						((TreeMap<String, Object>) current).remove(null);
-					else
-						((TreeMap<String, Object>) current).put(null, value);
+					removed(value == null ? c.remove(null) : c.put(null, value), false);
 					break;
 				} else if (i == split.length - 2 && split[i + 1].equals("*")) {
 					assert value == null;
-					deleteFromHashMap(StringUtils.join(split, Variable.SEPARATOR, 0, i + 1), (TreeMap<String, Object>) current);
-					final Object v = ((TreeMap<String, Object>) current).get(null);
+					final Object v = c.get(null);
 					if (v == null)
 						parent.remove(n);
 					else
 						parent.put(n, v);
+					removed(c, v != null);
 					break;
 				} else {
-					parent = (TreeMap<String, Object>) current;
+					parent = c;
 					continue;
 				}
 			} else {
 				if (i == split.length - 1) {
-					if (value == null)
-						parent.remove(n);
-					else
-						parent.put(n, value);
+					removed(value == null ? parent.remove(n) : parent.put(n, value), false);
 					break;
 				} else if (value != null) {
-					final TreeMap<String, Object> c = new TreeMap<String, Object>(variableNameComparator);
+					final ListVariableNode c = new ListVariableNode();
 					c.put(null, current);
+					if (current instanceof ColdVariables.ColdValue)
+						parent.hasCold = true;
 					parent.put(n, c);
 					parent = c;
 					continue;
@@ -181,16 +264,51 @@ final class VariablesMap {
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
-	void deleteFromHashMap(final String parent, final TreeMap<String, Object> current) {
-		for (final Entry<String, Object> e : current.entrySet()) {
+	/**
+	 * Releases the {@link ColdVariables cold} values of a variable or list that has been removed from this map.
+	 * 
+	 * @param keepOwnValue Whether the list's own value is still in this map
+	 */
+	private void removed(final @Nullable Object value, final boolean keepOwnValue) {
+		final ColdVariables cold = this.cold;
+		if (cold != null && value != null)
+			cold.removed(value, keepOwnValue);
+	}
+	
+	/**
+	 * @return The number of variables in this map, counting the values of list variables themselves as well
+	 */
+	final int size() {
+		return size(root);
+	}
+	
+	private final static int size(final Map<String, Object> list) {
+		int size = 0;
+		for (final Object o : list.values()) {
+			if (o instanceof ListVariableNode)
+				size += size((ListVariableNode) o);
+			else
+				size++;
+		}
+		return size;
+	}
+	
+	/**
+	 * Puts all variables in this map into the given map by their full names.
+	 */
+	final void getAll(final Map<String, Object> all) {
+		getAll(all, "", root);
+	}
+	
+	private final static void getAll(final Map<String, Object> all, final String parent, final Map<String, Object> list) {
+		for (final Entry<String, Object> e : list.entrySet()) {
+			final Object o = e.getValue();
 			if (e.getKey() == null)
-				continue;
-			hashMap.remove(parent + Variable.SEPARATOR + e.getKey());
-			final Object val = e.getValue();
-			if (val instanceof TreeMap) {
-				deleteFromHashMap(parent + Variable.SEPARATOR + e.getKey(), (TreeMap<String, Object>) val);
-			}
+				all.put(parent.substring(0, parent.length() - Variable.SEPARATOR.length()), o);
+			else if (o instanceof ListVariableNode)
+				getAll(all, parent + e.getKey() + Variable.SEPARATOR, (ListVariableNode) o);
+			else
+				all.put(parent + e.getKey(), o);
 		}
 	}
 	
@@ -111,14 +111,16 @@ public abstract class VariablesStorage implements Closeable {
 	}
 	
 	public final boolean load(final SectionNode n) {
-		final String pattern = getValue(n, "pattern");
-		if (pattern == null)
-			return false;
-		try {
-			variablePattern = pattern.equals(".*") || pattern.equals(".+") ? null : Pattern.compile(pattern);
-		} catch (final PatternSyntaxException e) {
-			Skript.error("Invalid pattern '" + pattern + "': " + e.getLocalizedMessage());
-			return false;
+		if (hasPattern()) {
+			final String pattern = getValue(n, "pattern");
+			if (pattern == null)
+				return false;
+			try {
+				variablePattern = pattern.equals(".*") || pattern.equals(".+") ? null : Pattern.compile(pattern);
+			} catch (final PatternSyntaxException e) {
+				Skript.error("Invalid pattern '" + pattern + "': " + e.getLocalizedMessage());
+				return false;
+			}
 		}
 		
 		if (requiresFile()) {
@@ -171,6 +173,13 @@ public abstract class VariablesStorage implements Closeable {
 		return true;
 	}
 	
+	/**
+	 * @return Whether the entry 'pattern' defines which variables are stored here. Storages that return false must override {@link #accept(String)}.
+	 */
+	protected boolean hasPattern() {
+		return true;
+	}
+	
 	/**
 	 * Loads variables stored here.
 	 * 
@@ -20,7 +20,6 @@
 package ch.njol.util;
 
 import java.util.Iterator;
-import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -129,13 +128,93 @@ public abstract class StringUtils {
 		assert accuracy >= 0;
 		if (accuracy <= 0)
 			return "" + Math.round(d);
-		final String s = String.format(Locale.ENGLISH, "%." + accuracy + "f", d);
-		int c = s.length() - 1;
-		while (s.charAt(c) == '0')
-			c--;
-		if (s.charAt(c) == '.')
-			c--;
-		return "" + s.substring(0, c + 1);
+		return "" + append(new StringBuilder(), d, accuracy);
+	}
+	
+	/**
+	 * Appends the same as {@link #toString(double, int)} returns to the given StringBuilder, i.e. a rounded english (##.##) representation of a number without
+	 * trailing zeros. Unlike <tt>String.format</tt> this doesn't create a formatter each time and has a fast path for whole numbers.
+	 * 
+	 * @param b The StringBuilder to append to
+	 * @param d The number to be turned into a string
+	 * @param accuracy Maximum number of digits after the period
+	 * @return The given StringBuilder
+	 */
+	public static final StringBuilder append(final StringBuilder b, final double d, final int accuracy) {
+		assert accuracy >= 0;
+		if (accuracy <= 0)
+			return b.append(Math.round(d));
+		if (d == Math.rint(d) && Math.abs(d) < 1e15) { // fast path for whole numbers
+			if (d == 0 && Double.doubleToRawLongBits(d) != 0)
+				return b.append("-0");
+			return b.append((long) d);
+		}
+		if (Double.isNaN(d) || Double.isInfinite(d))
+			return b.append(d);
+		
+		// round the shortest decimal representation of the number half up, like String.format does
+		final String s = Double.toString(d);
+		final char[] digits = new char[s.length() + 1]; // digits[0] is reserved for a carry
+		int numDigits = 0, exp = 0, i = 0;
+		if (d < 0) {
+			b.append('-');
+			i++;
+		}
+		for (; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if (c == '.') {
+				exp = numDigits;
+			} else if (c == 'E') {
+				exp += Integer.parseInt(s.substring(i + 1));
+				break;
+			} else if (c != '0' || numDigits != 0) {
+				digits[1 + numDigits++] = c;
+			} else { // leading zero
+				exp--;
+			}
+		}
+		// the number is now 0.[digits] * 10^exp
+		int start = 1;
+		final int keep = exp + accuracy;
+		if (keep < 0) {
+			numDigits = 0;
+		} else if (keep < numDigits) {
+			final boolean up = digits[1 + keep] >= '5';
+			numDigits = keep;
+			if (up) {
+				int j = keep;
+				while (j >= 1 && digits[j] == '9')
+					digits[j--] = '0';
+				if (j >= 1) {
+					digits[j]++;
+				} else {
+					digits[0] = '1';
+					start = 0;
+					numDigits++;
+					exp++;
+				}
+			}
+		}
+		if (numDigits == 0) // rounded to zero
+			exp = 0;
+		// remove trailing zeros of the fraction
+		while (numDigits > 0 && numDigits > exp && digits[start + numDigits - 1] == '0')
+			numDigits--;
+		if (exp <= 0) {
+			b.append('0');
+		} else {
+			b.append(digits, start, Math.min(exp, numDigits));
+			for (int z = numDigits; z < exp; z++)
+				b.append('0');
+		}
+		if (numDigits > exp) {
+			b.append('.');
+			for (int z = exp; z < 0; z++)
+				b.append('0');
+			final int from = Math.max(exp, 0);
+			b.append(digits, start + from, numDigits - from);
+		}
+		return b;
 	}
 	
 	public static final String firstToUpper(final String s) {
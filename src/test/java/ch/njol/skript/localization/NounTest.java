@@ -67,4 +67,18 @@ public class NounTest {
 		}
 	}
 	
+	@Test
+	public void testLanguageChange() {
+		final Noun n = new Noun("noun test.item");
+		Language.english.put("noun test.item", "item¦s");
+		Language.updateSnapshots();
+		assertEquals("item", n.toString());
+		assertEquals("items", n.toString(true));
+		Language.english.put("noun test.item", "thing¦s");
+		Language.updateSnapshots();
+		assertEquals("things", n.toString(true));
+		Language.english.remove("noun test.item");
+		Language.updateSnapshots();
+	}
+	
 }
@@ -0,0 +1,207 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+
+import ch.njol.skript.Skript;
+import ch.njol.util.Math2;
+
+/**
+ * Compares the blocks of {@link BlockSphereIterator} and {@link AABB#iterator()} with the blocks of their previous implementations, which tested the distance of
+ * every block of the surrounding box and got every block from the world.
+ */
+public class BlockAreaIteratorTest {
+	
+	private final static int MAX_HEIGHT = 256;
+	
+	/**
+	 * A world whose chunks return blocks that only know their coordinates
+	 */
+	private final static World world = (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] {World.class}, new InvocationHandler() {
+		@Override
+		public Object invoke(final Object proxy, final Method method, final @Nullable Object[] args) {
+			switch (method.getName()) {
+				case "getMaxHeight":
+					return MAX_HEIGHT;
+				case "getChunkAt":
+					assert args != null;
+					return chunk((Integer) args[0], (Integer) args[1]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					assert args != null;
+					return proxy == args[0];
+				case "toString":
+					return "world";
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		}
+	});
+	
+	final static Chunk chunk(final int chunkX, final int chunkZ) {
+		return (Chunk) Proxy.newProxyInstance(Chunk.class.getClassLoader(), new Class<?>[] {Chunk.class}, new InvocationHandler() {
+			@Override
+			public Object invoke(final Object proxy, final Method method, final @Nullable Object[] args) {
+				assert args != null;
+				if (!method.getName().equals("getBlock"))
+					throw new UnsupportedOperationException(method.getName());
+				final int x = (Integer) args[0], y = (Integer) args[1], z = (Integer) args[2];
+				assertTrue(0 <= x && x < 16 && 0 <= y && y < MAX_HEIGHT && 0 <= z && z < 16);
+				return block(chunkX * 16 + x, y, chunkZ * 16 + z);
+			}
+		});
+	}
+	
+	final static Block block(final int x, final int y, final int z) {
+		return (Block) Proxy.newProxyInstance(Block.class.getClassLoader(), new Class<?>[] {Block.class}, new InvocationHandler() {
+			@Override
+			public Object invoke(final Object proxy, final Method method, final @Nullable Object[] args) {
+				switch (method.getName()) {
+					case "getX":
+						return x;
+					case "getY":
+						return y;
+					case "getZ":
+						return z;
+					case "getWorld":
+						return world;
+					default:
+						throw new UnsupportedOperationException(method.getName());
+				}
+			}
+		});
+	}
+	
+	private final static String key(final int x, final int y, final int z) {
+		return x + "," + y + "," + z;
+	}
+	
+	/**
+	 * @return The coordinates of the iterated blocks. Fails if a block is iterated twice.
+	 */
+	private final static Set<String> blocks(final Iterator<Block> iter) {
+		final Set<String> r = new HashSet<>();
+		while (iter.hasNext()) {
+			final Block b = iter.next();
+			assertTrue("duplicate block " + key(b.getX(), b.getY(), b.getZ()), r.add(key(b.getX(), b.getY(), b.getZ())));
+		}
+		assertFalse(iter.hasNext());
+		return r;
+	}
+	
+	/**
+	 * The blocks of the previous implementation of {@link AABB#iterator()}
+	 */
+	private final static Set<String> oldBox(final AABB box) {
+		final Set<String> r = new HashSet<>();
+		final int minX = Math2.ceilI(box.lowerBound.getX() - Skript.EPSILON),
+				minY = Math2.ceilI(box.lowerBound.getY() - Skript.EPSILON),
+				minZ = Math2.ceilI(box.lowerBound.getZ() - Skript.EPSILON);
+		final int maxX = Math2.floorI(box.upperBound.getX() + Skript.EPSILON) - 1,
+				maxY = Math2.floorI(box.upperBound.getY() + Skript.EPSILON) - 1,
+				maxZ = Math2.floorI(box.upperBound.getZ() + Skript.EPSILON) - 1;
+		for (int y = minY; y <= maxY; y++) {
+			for (int z = minZ; z <= maxZ; z++) {
+				for (int x = minX; x <= maxX; x++)
+					r.add(key(x, y, z));
+			}
+		}
+		return r;
+	}
+	
+	/**
+	 * The blocks of the previous implementation of {@link BlockSphereIterator}
+	 */
+	private final static Set<String> oldSphere(final Location center, final double radius) {
+		final double rSquared = radius * radius * Skript.EPSILON_MULT;
+		final Set<String> r = new HashSet<>();
+		for (final String b : oldBox(new AABB(center, radius + 0.5001, radius + 0.5001, radius + 0.5001))) {
+			final String[] c = b.split(",");
+			final Location l = new Location(world, Integer.parseInt(c[0]) + 0.5, Integer.parseInt(c[1]) + 0.5, Integer.parseInt(c[2]) + 0.5);
+			if (center.distanceSquared(l) < rSquared)
+				r.add(b);
+		}
+		return r;
+	}
+	
+	private final static List<Location> centers() {
+		final List<Location> r = new ArrayList<>();
+		// chunk borders, block borders and block centres, on both sides of 0
+		final double[] xz = {0, 0.5, -0.5, 15.5, 16, 16.25, -15.5, -16, -16.75, -1, -0.001, 31.999, -32.5};
+		final double[] ys = {0, 0.5, 3.2, 64, 254.5, 255.9};
+		for (int i = 0; i < xz.length; i++) {
+			for (final double y : ys)
+				r.add(new Location(world, xz[i], y, xz[(i * 7 + 3) % xz.length]));
+		}
+		final Random random = new Random(42);
+		for (int i = 0; i < 20; i++)
+			r.add(new Location(world, random.nextDouble() * 200 - 100, random.nextDouble() * MAX_HEIGHT, random.nextDouble() * 200 - 100));
+		return r;
+	}
+	
+	@Test
+	public void testSphere() {
+		final double[] radii = {0, 0.3, 0.5, 0.866, 1, 1.5, 2.7, 7.5, 16, 20.01};
+		for (final Location center : centers()) {
+			for (final double radius : radii) {
+				final Set<String> expected = oldSphere(center, radius);
+				assertEquals(center + ", " + radius, expected, blocks(new BlockSphereIterator(center, radius)));
+			}
+		}
+	}
+	
+	@Test
+	public void testBox() {
+		final Random random = new Random(42);
+		final List<Location> centers = centers();
+		for (final Location l1 : centers) {
+			final Location l2 = centers.get(random.nextInt(centers.size()));
+			if (l1.distanceSquared(l2) > 80 * 80)
+				continue;
+			final AABB box = new AABB(l1, l2);
+			assertEquals(l1 + ", " + l2, oldBox(box), blocks(box.iterator()));
+		}
+		for (int i = 0; i < 100; i++) {
+			final AABB box = new AABB(block(random.nextInt(80) - 40, random.nextInt(MAX_HEIGHT), random.nextInt(80) - 40),
+					block(random.nextInt(80) - 40, random.nextInt(MAX_HEIGHT), random.nextInt(80) - 40));
+			assertEquals(oldBox(box), blocks(box.iterator()));
+		}
+	}
+	
+}
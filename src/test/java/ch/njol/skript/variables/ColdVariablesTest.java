@@ -0,0 +1,194 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.util.NonNullPair;
+
+public class ColdVariablesTest {
+	
+	private final static int SEGMENT_SIZE = 1024;
+	
+	private final static ClassInfo<String> stringInfo = new ClassInfo<>(String.class, "string");
+	
+	@SuppressWarnings("null")
+	private ColdVariables cold;
+	@SuppressWarnings("null")
+	private VariablesMap map;
+	
+	@Before
+	public void before() throws IOException {
+		final File f = File.createTempFile("skript", ".cold");
+		final List<String[]> lists = new ArrayList<>();
+		lists.add(new String[] {"log"});
+		// strings are serialised as their UTF-8 bytes, as the class infos of Skript are not registered in tests
+		cold = new ColdVariables(f, lists, 0, SEGMENT_SIZE) {
+			@SuppressWarnings("null")
+			@Override
+			@Nullable
+			NonNullPair<ClassInfo<?>, byte[]> serialize(final Object value) {
+				return new NonNullPair<ClassInfo<?>, byte[]>(stringInfo, ((String) value).getBytes(StandardCharsets.UTF_8));
+			}
+			
+			@Override
+			@Nullable
+			Object deserialize(final ClassInfo<?> type, final byte[] data) {
+				return new String(data, StandardCharsets.UTF_8);
+			}
+		};
+		map = new VariablesMap();
+		map.cold = cold;
+	}
+	
+	@After
+	public void after() {
+		cold.close();
+	}
+	
+	private final static String value(final int i) {
+		return "log entry number " + i;
+	}
+	
+	/**
+	 * Sweeps without a time limit, i.e. one element per call.
+	 * 
+	 * @return The number of calls needed to complete the sweep
+	 */
+	private int sweep() {
+		int calls = 1;
+		while (!cold.sweep(map.root, 0))
+			calls++;
+		return calls;
+	}
+	
+	@SuppressWarnings("null")
+	private ListVariableNode getLog() {
+		return (ListVariableNode) map.root.get("log");
+	}
+	
+	@Test
+	public void testDemoteAndPromote() {
+		for (int i = 1; i <= 100; i++)
+			map.setVariable("log::" + i, value(i));
+		map.setVariable("log::sub::1", value(1));
+		map.setVariable("other::1", value(1));
+		
+		assertTrue(sweep() > 100); // the sweep is continued where it stopped
+		final ListVariableNode log = getLog();
+		for (int i = 1; i <= 100; i++)
+			assertTrue(log.get("" + i) instanceof ColdVariables.ColdValue);
+		assertTrue(((ListVariableNode) log.get("sub")).get("1") instanceof ColdVariables.ColdValue);
+		assertEquals(value(1), map.getVariable("other::1"));
+		final long used = cold.getUsedBytes();
+		assertEquals(sizeOfValues(100) + value(1).length(), used);
+		
+		// reading a variable makes it hot
+		assertEquals(value(5), map.getVariable("log::5"));
+		assertEquals(value(5), log.get("5"));
+		assertEquals(used - value(5).length(), cold.getUsedBytes());
+		
+		// reading a list makes its elements hot, but not the elements of its sublists
+		final ListVariableNode list = (ListVariableNode) map.getVariable("log::*");
+		assertNotNull(list);
+		for (int i = 1; i <= 100; i++)
+			assertEquals(value(i), list.get("" + i));
+		assertEquals(value(1).length(), cold.getUsedBytes());
+		assertEquals(value(1), map.getVariable("log::sub::1"));
+		assertEquals(0, cold.getUsedBytes());
+	}
+	
+	private final static long sizeOfValues(final int n) {
+		long r = 0;
+		for (int i = 1; i <= n; i++)
+			r += value(i).length();
+		return r;
+	}
+	
+	@Test
+	public void testReuse() {
+		for (int i = 1; i <= 200; i++)
+			map.setVariable("log::" + i, value(i));
+		sweep();
+		final int segments = cold.getSegmentCount();
+		assertTrue(segments > 1);
+		
+		// deleted values are released
+		map.setVariable("log::*", null);
+		assertEquals(0, cold.getUsedBytes());
+		for (int i = 1; i <= 200; i++)
+			map.setVariable("log::" + i, value(i));
+		sweep();
+		assertEquals(segments, cold.getSegmentCount());
+		
+		// overwritten values are released (the new values have the same lengths)
+		for (int i = 1; i <= 200; i++)
+			map.setVariable("log::" + i, value(i).toUpperCase());
+		assertEquals(0, cold.getUsedBytes());
+		sweep();
+		assertEquals(segments, cold.getSegmentCount());
+		for (int i = 1; i <= 200; i++)
+			assertEquals(value(i).toUpperCase(), map.getVariable("log::" + i));
+	}
+	
+	@Test
+	public void testRelocation() {
+		for (int i = 1; i <= 200; i++)
+			map.setVariable("log::" + i, value(i));
+		sweep();
+		final int segments = cold.getSegmentCount();
+		for (int i = 1; i <= 200; i++) {
+			if (i % 10 != 0)
+				map.setVariable("log::" + i, null);
+		}
+		final long used = cold.getUsedBytes();
+		
+		// the remaining values are moved out of the now mostly unused segments
+		sweep();
+		assertEquals(used, cold.getUsedBytes());
+		assertEquals(segments, cold.getSegmentCount());
+		final Set<Long> usedSegments = new HashSet<>();
+		final ListVariableNode log = getLog();
+		for (int i = 10; i <= 200; i += 10) {
+			final Object o = log.get("" + i);
+			assertTrue(o instanceof ColdVariables.ColdValue);
+			usedSegments.add(((ColdVariables.ColdValue) o).position / SEGMENT_SIZE);
+		}
+		assertTrue(usedSegments.size() <= 2);
+		for (int i = 10; i <= 200; i += 10)
+			assertEquals(value(i), map.getVariable("log::" + i));
+		assertEquals(0, cold.getUsedBytes());
+	}
+	
+}
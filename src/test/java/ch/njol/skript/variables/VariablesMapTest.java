@@ -0,0 +1,192 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+
+import ch.njol.skript.util.Utils;
+import ch.njol.util.StringUtils;
+
+public class VariablesMapTest {
+	
+	/**
+	 * The comparator as it used to be implemented, which parses all numbers.
+	 */
+	private final static int compareParsing(final @Nullable String s1, final @Nullable String s2) {
+		if (s1 == null)
+			return s2 == null ? 0 : -1;
+		if (s2 == null)
+			return 1;
+		int i = 0, j = 0;
+		while (i < s1.length() && j < s2.length()) {
+			final char c1 = s1.charAt(i), c2 = s2.charAt(j);
+			if ('0' <= c1 && c1 <= '9' && '0' <= c2 && c2 <= '9') {
+				final int i2 = StringUtils.findLastDigit(s1, i), j2 = StringUtils.findLastDigit(s2, j);
+				final long n1 = Utils.parseLong("" + s1.substring(i, i2)), n2 = Utils.parseLong("" + s2.substring(j, j2));
+				if (n1 != n2)
+					return n1 > n2 ? 1 : -1;
+				i = i2;
+				j = j2;
+			} else {
+				if (c1 != c2)
+					return c1 > c2 ? 1 : -1;
+				i++;
+				j++;
+			}
+		}
+		if (i < s1.length())
+			return -1;
+		if (j < s2.length())
+			return 1;
+		return 0;
+	}
+	
+	@SuppressWarnings("null")
+	@Test
+	public void testComparator() {
+		final List<String> names = new ArrayList<>();
+		final String[] parts = {"", "a", "b", "::", "0", "00", "1", "01", "2", "9", "10", "010", "99", "100", "123456789012"};
+		final Random random = new Random(42);
+		for (int i = 0; i < 500; i++) {
+			final StringBuilder b = new StringBuilder();
+			final int n = random.nextInt(5);
+			for (int j = 0; j < n; j++)
+				b.append(parts[random.nextInt(parts.length)]);
+			names.add("" + b);
+		}
+		names.add(null);
+		for (final String s1 : names) {
+			for (final String s2 : names) {
+				final int expected = Integer.signum(compareParsing(s1, s2));
+				assertEquals(s1 + " <> " + s2, expected, Integer.signum(VariablesMap.variableNameComparator.compare(s1, s2)));
+			}
+		}
+		
+		assertTrue(VariablesMap.variableNameComparator.compare("a::99999999999999999999", "a::99999999999999999998") > 0);
+	}
+	
+	@Test
+	public void testFreeListIndex() {
+		final VariablesMap map = new VariablesMap();
+		for (int i = 1; i <= 5; i++)
+			map.setVariable("list::" + i, "" + i);
+		map.setVariable("list::x", "x");
+		final ListVariableNode list = (ListVariableNode) map.getVariable("list::*");
+		assertNotNull(list);
+		assertEquals(6, list.nextFreeIndex());
+		map.setVariable("list::3", null);
+		assertEquals(3, list.nextFreeIndex());
+		map.setVariable("list::3", "3");
+		assertEquals(6, list.nextFreeIndex());
+		map.setVariable("list::06", "6");
+		assertEquals(6, list.nextFreeIndex()); // {list::06} is not {list::6}
+		map.setVariable("list::6", "6");
+		assertEquals(7, list.nextFreeIndex());
+		map.setVariable("list::1::sub", "sub");
+		map.setVariable("list::1", null);
+		assertEquals(7, list.nextFreeIndex()); // {list::1::sub} is still set
+		map.setVariable("list::2", null);
+		assertEquals(2, list.nextFreeIndex());
+		map.setVariable("list::*", null);
+		assertNull(map.getVariable("list::*"));
+	}
+	
+	@Test
+	public void testListOrder() {
+		final VariablesMap map = new VariablesMap();
+		map.setVariable("list::b", "b");
+		map.setVariable("list::1000", "1000");
+		map.setVariable("list::2", "2");
+		map.setVariable("list::a", "a");
+		map.setVariable("list", "own");
+		for (int i = 20; i >= 3; i--) // grows the array past 1000's neighbours, but not up to 1000
+			map.setVariable("list::" + i, "" + i);
+		map.setVariable("list::1", "1");
+		final ListVariableNode list = (ListVariableNode) map.getVariable("list::*");
+		assertNotNull(list);
+		assertEquals(24, list.size());
+		assertEquals(24, map.size());
+		assertEquals("own", map.getVariable("list"));
+		assertEquals("1000", map.getVariable("list::1000"));
+		assertNull(map.getVariable("list::21"));
+		
+		final List<String> keys = new ArrayList<>(list.keySet());
+		assertNull(keys.get(0));
+		for (int i = 1; i <= 20; i++)
+			assertEquals("" + i, keys.get(i));
+		assertEquals("1000", keys.get(21));
+		assertEquals("a", keys.get(22));
+		assertEquals("b", keys.get(23));
+		
+		for (int i = 1; i <= 20; i++)
+			map.setVariable("list::" + i, null);
+		assertEquals(4, map.size());
+		assertEquals(1, list.nextFreeIndex());
+		map.setVariable("list", null);
+		map.setVariable("list::a", null);
+		map.setVariable("list::b", null);
+		map.setVariable("list::1000", null);
+		assertTrue(list.isEmpty());
+		assertEquals(0, map.size());
+	}
+	
+	@Test
+	public void testLeadingZeros() {
+		final VariablesMap map = new VariablesMap();
+		map.setVariable("id01", "a");
+		map.setVariable("id1", "b");
+		assertEquals("a", map.getVariable("id01"));
+		assertEquals("b", map.getVariable("id1"));
+		assertNull(map.getVariable("id001"));
+		
+		map.setVariable("list::1", "1");
+		map.setVariable("list::01", "01");
+		map.setVariable("list::001", "001");
+		map.setVariable("list::2", "2");
+		final ListVariableNode list = (ListVariableNode) map.getVariable("list::*");
+		assertNotNull(list);
+		assertEquals(4, list.size());
+		assertEquals("1", map.getVariable("list::1"));
+		assertEquals("01", map.getVariable("list::01"));
+		assertEquals("001", map.getVariable("list::001"));
+		
+		final List<String> keys = new ArrayList<>(list.keySet());
+		assertEquals("001", keys.get(0));
+		assertEquals("01", keys.get(1));
+		assertEquals("1", keys.get(2));
+		assertEquals("2", keys.get(3));
+		assertEquals(3, list.nextFreeIndex());
+		
+		map.setVariable("list::1", null);
+		assertEquals("01", map.getVariable("list::01"));
+		assertEquals(1, list.nextFreeIndex());
+		map.setVariable("list::01", null);
+		assertEquals("001", map.getVariable("list::001"));
+		assertEquals(4, map.size());
+	}
+
+}
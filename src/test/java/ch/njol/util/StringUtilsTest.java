@@ -0,0 +1,66 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class StringUtilsTest {
+	
+	/**
+	 * The implementation of {@link StringUtils#toString(double, int)} before it stopped using String.format
+	 */
+	private static String format(final double d, final int accuracy) {
+		if (accuracy <= 0)
+			return "" + Math.round(d);
+		final String s = String.format(Locale.ENGLISH, "%." + accuracy + "f", d);
+		int c = s.length() - 1;
+		while (s.charAt(c) == '0')
+			c--;
+		if (s.charAt(c) == '.')
+			c--;
+		return "" + s.substring(0, c + 1);
+	}
+	
+	private static void assertFormat(final double d) {
+		for (int accuracy = 0; accuracy <= 10; accuracy++)
+			assertEquals(d + " with accuracy " + accuracy, format(d, accuracy), StringUtils.toString(d, accuracy));
+	}
+	
+	@Test
+	public void testToString() {
+		final double[] special = {0, -0.0, 1, -1, 0.5, -0.5, 2.5, 0.15, 1.005, 0.05, 0.005, -0.001, 9.995, 99.995, 0.9999, 0.095, 1e-10, -1e-10, 1e15 - 0.5, 1.5e15,
+				1e20, 123456789.123456789, Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+		for (final double d : special)
+			assertFormat(d);
+		
+		final Random random = new Random(42);
+		for (int i = 0; i < 10000; i++) {
+			assertFormat(random.nextDouble() * Math.pow(10, random.nextInt(30) - 15) * (random.nextBoolean() ? 1 : -1));
+			assertFormat((random.nextInt(2000000) - 1000000) / Math.pow(10, random.nextInt(10)));
+			assertFormat(Double.longBitsToDouble(random.nextLong()));
+		}
+	}
+	
+}